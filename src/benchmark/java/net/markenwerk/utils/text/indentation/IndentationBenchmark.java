@@ -0,0 +1,135 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@SuppressWarnings("javadoc")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndentationBenchmark {
+
+	@Param({ "SPACE_2", "SPACE_4", "TAB_1", "TAB_2", "TAB_4", "TAB_8", "INVISIBLE" })
+	public String kind;
+
+	@Param({ "0", "1", "2", "4", "8", "16", "32", "64" })
+	public int level;
+
+	private Indentation indentation;
+
+	private StringBuilder stringBuilder;
+
+	private StringWriter stringWriter;
+
+	private BufferedWriter bufferedWriter;
+
+	private PrintStream printStream;
+
+	@Setup
+	public void setup() {
+		if ("SPACE_2".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+		} else if ("SPACE_4".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.SPACE, 4, LineBreak.UNIX);
+		} else if ("TAB_1".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+		} else if ("TAB_2".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.TAB, 2, LineBreak.UNIX);
+		} else if ("TAB_4".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.TAB, 4, LineBreak.UNIX);
+		} else if ("TAB_8".equals(kind)) {
+			indentation = new WhitespaceIndentation(Whitespace.TAB, 8, LineBreak.UNIX);
+		} else {
+			indentation = new InvisibleIndentation(LineBreak.UNIX);
+		}
+		stringBuilder = new StringBuilder();
+		stringWriter = new StringWriter();
+		bufferedWriter = new BufferedWriter(new NullWriter());
+		printStream = new PrintStream(new NullOutputStream());
+	}
+
+	@Benchmark
+	public String get() {
+		return indentation.get(level);
+	}
+
+	@Benchmark
+	public String getWithLineBreak() {
+		return indentation.get(level, true);
+	}
+
+	@Benchmark
+	public StringBuilder appendToStringBuilder() throws IOException {
+		stringBuilder.setLength(0);
+		indentation.appendTo(stringBuilder, level, true);
+		return stringBuilder;
+	}
+
+	@Benchmark
+	public StringWriter appendToStringWriter() throws IOException {
+		stringWriter.getBuffer().setLength(0);
+		indentation.appendTo(stringWriter, level, true);
+		return stringWriter;
+	}
+
+	@Benchmark
+	public BufferedWriter appendToBufferedWriter() throws IOException {
+		indentation.appendTo(bufferedWriter, level, true);
+		return bufferedWriter;
+	}
+
+	@Benchmark
+	public PrintStream appendToPrintStream() throws IOException {
+		indentation.appendTo(printStream, level, true);
+		return printStream;
+	}
+
+	private static final class NullWriter extends Writer {
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	private static final class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) {
+		}
+
+	}
+
+}
@@ -22,20 +22,64 @@
 package net.markenwerk.utils.text.indentation;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link AbstractIndentation} is an {@link Indentation} that repeats a given
  * indentation string.
  * 
+ * <p>
+ * The indentation strings for all levels up to a
+ * {@link AbstractIndentation#getMaximumCachedLevel() maximum cached level} are
+ * created lazily and reused for all subsequent calls. Indentation strings for
+ * deeper levels are created on every call. {@link CharSequence} views for
+ * deeper levels are backed by a shared character array and don't need to be
+ * materialized.
+ * 
+ * <p>
+ * Appending an indentation string to an {@link Appendable} always requires a
+ * single call to {@link Appendable#append(CharSequence, int, int)}, regardless
+ * of the level and of whether the line break is included or not.
+ * 
+ * <p>
+ * Indentation strings are written to a {@link Writer} directly from a shared
+ * character array by {@link Writer#write(char[], int, int)}, without creating
+ * any intermediate strings.
+ * 
  * @author Torsten Krause (tk at markenwerk dot net)
  * @since 1.0.0
  */
 public abstract class AbstractIndentation implements Indentation {
 
+	/**
+	 * The maximum level, up to which indentation strings are cached, if no
+	 * specific maximum cached level is given.
+	 * 
+	 * @since 2.0.0
+	 */
+	public static final int DEFAULT_MAXIMUM_CACHED_LEVEL = 32;
+
+	private static final String[] NO_STRINGS = new String[0];
+
 	private final String indentationString;
 
 	private final String lineBreakString;
 
+	private final int indentationByteLength;
+
+	private final int lineBreakByteLength;
+
+	private final int maximumCachedLevel;
+
+	private final IndentationBuffer buffer;
+
+	private volatile String[] indentationStrings = NO_STRINGS;
+
+	private volatile String[] lineBreakIndentationStrings = NO_STRINGS;
+
 	/**
 	 * Creates a new {@link AbstractIndentation}.
 	 * 
@@ -49,7 +93,53 @@ public abstract class AbstractIndentation implements Indentation {
 	 * 
 	 */
 	public AbstractIndentation(String indentationString, LineBreak lineBreak) {
-		this(indentationString, fromLineBreak(lineBreak));
+		this(indentationString, fromLineBreak(lineBreak), DEFAULT_MAXIMUM_CACHED_LEVEL);
+	}
+
+	/**
+	 * Creates a new {@link AbstractIndentation}.
+	 * 
+	 * @param indentationString
+	 *            The indentation string to be used.
+	 * @param lineBreak
+	 *            The line break string to be used.
+	 * @param maximumCachedLevel
+	 *            The maximum level, up to which indentation strings are cached.
+	 * @throws IllegalArgumentException
+	 *             If the given indentation string is {@literal null} or if the
+	 *             given {@link LineBreak} is {@literal null} or if the given
+	 *             maximum cached level is negative.
+	 * @since 2.0.0
+	 */
+	public AbstractIndentation(String indentationString, LineBreak lineBreak, int maximumCachedLevel)
+			throws IllegalArgumentException {
+		this(indentationString, fromLineBreak(lineBreak), maximumCachedLevel, null);
+	}
+
+	/**
+	 * Creates a new {@link AbstractIndentation} that uses the given
+	 * {@link IndentationBuffer}.
+	 * 
+	 * @param indentationString
+	 *            The indentation string to be used.
+	 * @param lineBreak
+	 *            The line break string to be used.
+	 * @param maximumCachedLevel
+	 *            The maximum level, up to which indentation strings are cached.
+	 * @param buffer
+	 *            The {@link IndentationBuffer} to be used, whose prefix must
+	 *            end with the line break string and whose unit string must be
+	 *            a repeatable part of the indentation string, or
+	 *            {@literal null}, if a new {@link IndentationBuffer} should be
+	 *            created.
+	 * @throws IllegalArgumentException
+	 *             If the given indentation string is {@literal null} or if the
+	 *             given {@link LineBreak} is {@literal null} or if the given
+	 *             maximum cached level is negative.
+	 */
+	AbstractIndentation(String indentationString, LineBreak lineBreak, int maximumCachedLevel,
+			IndentationBuffer buffer) throws IllegalArgumentException {
+		this(indentationString, fromLineBreak(lineBreak), maximumCachedLevel, buffer);
 	}
 
 	private static String fromLineBreak(LineBreak lineBreak) {
@@ -72,15 +162,61 @@ public abstract class AbstractIndentation implements Indentation {
 	 * 
 	 */
 	public AbstractIndentation(String indentationString, String lineBreakString) throws IllegalArgumentException {
+		this(indentationString, lineBreakString, DEFAULT_MAXIMUM_CACHED_LEVEL);
+	}
+
+	/**
+	 * Creates a new {@link AbstractIndentation}.
+	 * 
+	 * @param indentationString
+	 *            The indentation string to be used.
+	 * @param lineBreakString
+	 *            The line break string to be used.
+	 * @param maximumCachedLevel
+	 *            The maximum level, up to which indentation strings are cached.
+	 * @throws IllegalArgumentException
+	 *             If the given indentation string is {@literal null} or if the
+	 *             given line break string is {@literal null} or if the given
+	 *             maximum cached level is negative.
+	 * @since 2.0.0
+	 */
+	public AbstractIndentation(String indentationString, String lineBreakString, int maximumCachedLevel)
+			throws IllegalArgumentException {
+		this(indentationString, lineBreakString, maximumCachedLevel, null);
+	}
+
+	private AbstractIndentation(String indentationString, String lineBreakString, int maximumCachedLevel,
+			IndentationBuffer buffer) throws IllegalArgumentException {
 		if (null == indentationString) {
 			throw new IllegalArgumentException("The given indentation string is null");
 		}
 		if (null == lineBreakString) {
 			throw new IllegalArgumentException("The given line break string is null");
 		}
+		if (maximumCachedLevel < 0) {
+			throw new IllegalArgumentException("The given maximum cached level is negative");
+		}
 		this.indentationString = indentationString;
 		this.lineBreakString = lineBreakString;
-		lineBreakString = System.getProperty("line.separator");
+		this.indentationByteLength = indentationString.getBytes(IndentationBuffer.CHARSET).length;
+		this.lineBreakByteLength = lineBreakString.getBytes(IndentationBuffer.CHARSET).length;
+		this.maximumCachedLevel = maximumCachedLevel;
+		if (null == buffer) {
+			this.buffer = new IndentationBuffer(lineBreakString, indentationString, maximumCachedLevel);
+		} else {
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Returns the maximum level, up to which indentation strings are cached by
+	 * this {@link AbstractIndentation}.
+	 * 
+	 * @return The maximum cached level.
+	 * @since 2.0.0
+	 */
+	public final int getMaximumCachedLevel() {
+		return maximumCachedLevel;
 	}
 
 	@Override
@@ -100,7 +236,48 @@ public abstract class AbstractIndentation implements Indentation {
 
 	@Override
 	public String get(int level, boolean includeLineBreak) throws IllegalArgumentException {
-		StringBuilder builder = new StringBuilder();
+		checkLevel(level);
+		if (level > maximumCachedLevel) {
+			return createIndentationString(level, includeLineBreak);
+		}
+		String[] cachedStrings = includeLineBreak ? lineBreakIndentationStrings : indentationStrings;
+		if (level < cachedStrings.length) {
+			return cachedStrings[level];
+		}
+		return growCache(level, includeLineBreak)[level];
+	}
+
+	private static void checkLevel(int level) throws IllegalArgumentException {
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+	}
+
+	private synchronized String[] growCache(int level, boolean includeLineBreak) {
+		String[] cachedStrings = includeLineBreak ? lineBreakIndentationStrings : indentationStrings;
+		if (level < cachedStrings.length) {
+			return cachedStrings;
+		}
+		int length = Math.min(maximumCachedLevel + 1, Math.max(level + 1, cachedStrings.length * 2));
+		String[] grownStrings = new String[length];
+		System.arraycopy(cachedStrings, 0, grownStrings, 0, cachedStrings.length);
+		for (int i = cachedStrings.length; i < length; i++) {
+			grownStrings[i] = createIndentationString(i, includeLineBreak);
+		}
+		if (includeLineBreak) {
+			lineBreakIndentationStrings = grownStrings;
+		} else {
+			indentationStrings = grownStrings;
+		}
+		return grownStrings;
+	}
+
+	private String createIndentationString(int level, boolean includeLineBreak) {
+		int length = level * indentationString.length();
+		if (includeLineBreak) {
+			length += lineBreakString.length();
+		}
+		StringBuilder builder = new StringBuilder(length);
 		if (includeLineBreak) {
 			builder.append(lineBreakString);
 		}
@@ -110,6 +287,21 @@ public abstract class AbstractIndentation implements Indentation {
 		return builder.toString();
 	}
 
+	@Override
+	public CharSequence getCharSequence(int level) throws IllegalArgumentException {
+		return getCharSequence(level, false);
+	}
+
+	@Override
+	public CharSequence getCharSequence(int level, boolean includeLineBreak) throws IllegalArgumentException {
+		checkLevel(level);
+		if (level > maximumCachedLevel) {
+			int lineBreakLength = includeLineBreak ? lineBreakString.length() : 0;
+			return buffer.getSequence(lineBreakLength, level * indentationString.length());
+		}
+		return get(level, includeLineBreak);
+	}
+
 	@Override
 	public void appendTo(Appendable appendable, int level) throws IllegalArgumentException, IOException {
 		appendTo(appendable, level, false);
@@ -121,12 +313,74 @@ public abstract class AbstractIndentation implements Indentation {
 		if (null == appendable) {
 			throw new IllegalArgumentException("The given appendable is null");
 		}
-		if (includeLineBreak) {
-			appendable.append(lineBreakString);
+		checkLevel(level);
+		if (appendable instanceof Writer) {
+			int lineBreakLength = includeLineBreak ? lineBreakString.length() : 0;
+			buffer.writeTo((Writer) appendable, lineBreakLength, level * indentationString.length());
+		} else if (level > maximumCachedLevel) {
+			appendable.append(createIndentationString(level, includeLineBreak));
+		} else {
+			String lineBreakIndentationString = get(level, true);
+			int start = includeLineBreak ? 0 : lineBreakString.length();
+			appendable.append(lineBreakIndentationString, start, lineBreakIndentationString.length());
 		}
-		for (int i = 0; i < level; i++) {
-			appendable.append(indentationString);
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream, int level) throws IllegalArgumentException, IOException {
+		writeTo(outputStream, level, false);
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream, int level, boolean includeLineBreak)
+			throws IllegalArgumentException, IOException {
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		checkLevel(level);
+		int lineBreakLength = includeLineBreak ? lineBreakByteLength : 0;
+		buffer.writeTo(outputStream, lineBreakLength, level * indentationByteLength);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level) throws IllegalArgumentException, BufferOverflowException {
+		writeTo(byteBuffer, level, false);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			BufferOverflowException {
+		if (null == byteBuffer) {
+			throw new IllegalArgumentException("The given byte buffer is null");
+		}
+		checkLevel(level);
+		int lineBreakLength = includeLineBreak ? lineBreakByteLength : 0;
+		int length = level * indentationByteLength;
+		if (byteBuffer.remaining() < lineBreakLength + length) {
+			throw new BufferOverflowException();
+		}
+		buffer.writeTo(byteBuffer, lineBreakLength, length);
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level) throws IllegalArgumentException, IndexOutOfBoundsException {
+		return writeTo(bytes, offset, level, false);
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			IndexOutOfBoundsException {
+		if (null == bytes) {
+			throw new IllegalArgumentException("The given byte array is null");
+		}
+		checkLevel(level);
+		int lineBreakLength = includeLineBreak ? lineBreakByteLength : 0;
+		int length = level * indentationByteLength;
+		if (offset < 0 || offset > bytes.length - (lineBreakLength + length)) {
+			throw new IndexOutOfBoundsException("The given byte array has not enough space after the given offset");
 		}
+		buffer.writeTo(bytes, offset, lineBreakLength, length);
+		return lineBreakLength + length;
 	}
 
 }
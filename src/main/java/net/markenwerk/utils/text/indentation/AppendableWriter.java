@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * An {@link AppendableWriter} is a {@link Writer} that appends all characters
+ * to an {@link Appendable}.
+ * 
+ * <p>
+ * Character ranges are appended to a {@link StringBuilder} without any
+ * intermediate objects.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+final class AppendableWriter extends Writer {
+
+	private final Appendable appendable;
+
+	private final StringBuilder builder;
+
+	/**
+	 * Creates a new {@link AppendableWriter}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 */
+	public AppendableWriter(Appendable appendable) {
+		this.appendable = appendable;
+		this.builder = appendable instanceof StringBuilder ? (StringBuilder) appendable : null;
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		appendable.append((char) c);
+	}
+
+	@Override
+	public void write(char[] buffer, int offset, int length) throws IOException {
+		if (null != builder) {
+			builder.append(buffer, offset, length);
+		} else {
+			appendable.append(CharBuffer.wrap(buffer, offset, length));
+		}
+	}
+
+	@Override
+	public void write(String string, int offset, int length) throws IOException {
+		appendable.append(string, offset, offset + length);
+	}
+
+	@Override
+	public Writer append(CharSequence sequence) throws IOException {
+		appendable.append(sequence);
+		return this;
+	}
+
+	@Override
+	public Writer append(CharSequence sequence, int start, int end) throws IOException {
+		appendable.append(sequence, start, end);
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+	}
+
+	@Override
+	public void close() throws IOException {
+	}
+
+}
@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link AsynchronousWriter} is a {@link Writer} that buffers all written
+ * characters in a ring buffer, which is drained into an underlying
+ * {@link Writer} by a background thread.
+ * 
+ * <p>
+ * The background thread drains the ring buffer in batches, once per flush
+ * interval, when the ring buffer is half full or when
+ * {@link AsynchronousWriter#flush()} is called, and flushes the underlying
+ * {@link Writer} after every batch. Characters are written to the underlying
+ * {@link Writer} directly from the ring buffer, while writing threads can
+ * continue to fill the free part of the ring buffer. A given
+ * {@link BackPressure} determines what happens, if the ring buffer is full.
+ * 
+ * <p>
+ * {@link AsynchronousWriter#writeIndentation(int)} and
+ * {@link AsynchronousWriter#writeLine(int, CharSequence)} write indentation
+ * strings of a given {@link Indentation}. A line, its indentation string and
+ * its line break are buffered atomically, such that lines written by
+ * concurrent threads never interleave, unless a line is larger than the ring
+ * buffer.
+ * 
+ * <p>
+ * {@link AsynchronousWriter#flush()} blocks until all characters that have
+ * been written before are written to and flushed by the underlying
+ * {@link Writer}. If writing to the underlying {@link Writer} fails, all
+ * subsequent operations throw an {@link IOException}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class AsynchronousWriter extends Writer {
+
+	/**
+	 * The capacity, in characters, of the ring buffer, if no specific capacity
+	 * is given.
+	 */
+	public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+	/**
+	 * The flush interval, in milliseconds, if no specific flush interval is
+	 * given.
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+	private final ReentrantLock ringLock = new ReentrantLock();
+
+	private final Condition notEmpty = ringLock.newCondition();
+
+	private final Condition notFull = ringLock.newCondition();
+
+	private final Condition drained = ringLock.newCondition();
+
+	private final Writer writer;
+
+	private final Indentation indentation;
+
+	private final long flushIntervalNanos;
+
+	private final BackPressure backPressure;
+
+	private final Thread drainer;
+
+	private char[] ring;
+
+	private int head;
+
+	private int size;
+
+	private long enqueuedCharacters;
+
+	private long drainedCharacters;
+
+	private int flushRequests;
+
+	private boolean closed;
+
+	private IOException failure;
+
+	private int maximumQueueDepth;
+
+	private long droppedCharacters;
+
+	private long batches;
+
+	private long totalBatchNanos;
+
+	private long maximumBatchNanos;
+
+	/**
+	 * Creates a new {@link AsynchronousWriter} with the
+	 * {@link AsynchronousWriter#DEFAULT_CAPACITY default} capacity, the
+	 * {@link AsynchronousWriter#DEFAULT_FLUSH_INTERVAL_MILLIS default} flush
+	 * interval and the {@link BackPressure#BLOCK} {@link BackPressure}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to be written to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Writer} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null}.
+	 */
+	public AsynchronousWriter(Writer writer, Indentation indentation) throws IllegalArgumentException {
+		this(writer, indentation, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS,
+				BackPressure.BLOCK);
+	}
+
+	/**
+	 * Creates a new {@link AsynchronousWriter}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to be written to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param capacity
+	 *            The initial capacity, in characters, of the ring buffer.
+	 * @param flushInterval
+	 *            The flush interval.
+	 * @param flushIntervalUnit
+	 *            The {@link TimeUnit} of the flush interval.
+	 * @param backPressure
+	 *            The {@link BackPressure} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Writer} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null} or if the given
+	 *             capacity is not positive or if the given flush interval is
+	 *             not positive or if the given {@link TimeUnit} is
+	 *             {@literal null} or if the given {@link BackPressure} is
+	 *             {@literal null}.
+	 */
+	public AsynchronousWriter(Writer writer, Indentation indentation, int capacity, long flushInterval,
+			TimeUnit flushIntervalUnit, BackPressure backPressure) throws IllegalArgumentException {
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The given capacity is not positive");
+		}
+		if (flushInterval < 1) {
+			throw new IllegalArgumentException("The given flush interval is not positive");
+		}
+		if (null == flushIntervalUnit) {
+			throw new IllegalArgumentException("The given flush interval unit is null");
+		}
+		if (null == backPressure) {
+			throw new IllegalArgumentException("The given back pressure is null");
+		}
+		this.writer = writer;
+		this.indentation = indentation;
+		this.ring = new char[capacity];
+		this.flushIntervalNanos = flushIntervalUnit.toNanos(flushInterval);
+		this.backPressure = backPressure;
+		this.drainer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				drain();
+			}
+
+		}, "AsynchronousWriter");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		ringLock.lock();
+		try {
+			if (reserve(1)) {
+				put((char) c);
+				afterPut();
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	@Override
+	public void write(char[] buffer, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset > buffer.length - length) {
+			throw new IndexOutOfBoundsException("The given range is invalid");
+		}
+		ringLock.lock();
+		try {
+			if (reserve(length)) {
+				put(buffer, offset, length);
+				afterPut();
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	@Override
+	public void write(String string, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset > string.length() - length) {
+			throw new IndexOutOfBoundsException("The given range is invalid");
+		}
+		ringLock.lock();
+		try {
+			if (reserve(length)) {
+				put(string, offset, offset + length);
+				afterPut();
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	@Override
+	public Writer append(CharSequence sequence) throws IOException {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		return append(sequence, 0, sequence.length());
+	}
+
+	@Override
+	public Writer append(CharSequence sequence, int start, int end) throws IOException {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		if (start < 0 || start > end || end > sequence.length()) {
+			throw new IndexOutOfBoundsException("The given range is invalid");
+		}
+		ringLock.lock();
+		try {
+			if (reserve(end - start)) {
+				put(sequence, start, end);
+				afterPut();
+			}
+		} finally {
+			ringLock.unlock();
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the indentation string for the given level.
+	 * 
+	 * @param level
+	 *            The level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 * @throws IOException
+	 *             If this {@link AsynchronousWriter} has been closed, if the
+	 *             current thread has been interrupted while waiting for space
+	 *             in the ring buffer or if writing to the underlying
+	 *             {@link Writer} failed.
+	 */
+	public void writeIndentation(int level) throws IllegalArgumentException, IOException {
+		append(indentation.getCharSequence(level, false));
+	}
+
+	/**
+	 * Writes the indentation string for the given level, followed by the given
+	 * line and the line break string.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param line
+	 *            The line to be written.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative or if the given line is
+	 *             {@literal null}.
+	 * @throws IOException
+	 *             If this {@link AsynchronousWriter} has been closed, if the
+	 *             current thread has been interrupted while waiting for space
+	 *             in the ring buffer or if writing to the underlying
+	 *             {@link Writer} failed.
+	 */
+	public void writeLine(int level, CharSequence line) throws IllegalArgumentException, IOException {
+		if (null == line) {
+			throw new IllegalArgumentException("The given line is null");
+		}
+		CharSequence indentationSequence = indentation.getCharSequence(level, false);
+		String lineBreak = indentation.getLineBreak();
+		ringLock.lock();
+		try {
+			if (reserve(indentationSequence.length() + line.length() + lineBreak.length())) {
+				put(indentationSequence, 0, indentationSequence.length());
+				put(line, 0, line.length());
+				put(lineBreak, 0, lineBreak.length());
+				afterPut();
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	private boolean reserve(int length) throws IOException {
+		checkOpen();
+		if (ring.length - size >= length) {
+			return true;
+		}
+		switch (backPressure) {
+		case DROP:
+			droppedCharacters += length;
+			return false;
+		case GROW:
+			grow(size + length);
+			return true;
+		default:
+			while (ring.length - size < length && length <= ring.length) {
+				awaitSpace();
+			}
+			return true;
+		}
+	}
+
+	private void grow(int capacity) {
+		char[] grownRing = new char[Math.max(capacity, ring.length * 2)];
+		int firstLength = Math.min(size, ring.length - head);
+		System.arraycopy(ring, head, grownRing, 0, firstLength);
+		System.arraycopy(ring, 0, grownRing, firstLength, size - firstLength);
+		ring = grownRing;
+		head = 0;
+	}
+
+	private void awaitSpace() throws IOException {
+		notEmpty.signal();
+		try {
+			notFull.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for space in the ring buffer");
+		}
+		checkOpen();
+	}
+
+	private void checkOpen() throws IOException {
+		if (null != failure) {
+			throw new IOException("Writing to the underlying writer failed", failure);
+		}
+		if (closed) {
+			throw new IOException("The asynchronous writer is closed");
+		}
+	}
+
+	private void put(char c) {
+		signalIfEmpty();
+		ring[(head + size) % ring.length] = c;
+		size++;
+		enqueuedCharacters++;
+	}
+
+	private void put(char[] buffer, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (size == ring.length) {
+				awaitSpace();
+				continue;
+			}
+			signalIfEmpty();
+			int tail = (head + size) % ring.length;
+			int chunkLength = Math.min(length, Math.min(ring.length - size, ring.length - tail));
+			System.arraycopy(buffer, offset, ring, tail, chunkLength);
+			size += chunkLength;
+			enqueuedCharacters += chunkLength;
+			offset += chunkLength;
+			length -= chunkLength;
+		}
+	}
+
+	private void put(CharSequence sequence, int start, int end) throws IOException {
+		while (start < end) {
+			if (size == ring.length) {
+				awaitSpace();
+				continue;
+			}
+			signalIfEmpty();
+			int tail = (head + size) % ring.length;
+			int chunkLength = Math.min(end - start, Math.min(ring.length - size, ring.length - tail));
+			IndentationBuffer.getChars(sequence, start, start + chunkLength, ring, tail);
+			size += chunkLength;
+			enqueuedCharacters += chunkLength;
+			start += chunkLength;
+		}
+	}
+
+	private void signalIfEmpty() {
+		if (0 == size) {
+			notEmpty.signal();
+		}
+	}
+
+	private void afterPut() {
+		maximumQueueDepth = Math.max(maximumQueueDepth, size);
+		if (size >= ring.length / 2) {
+			notEmpty.signal();
+		}
+	}
+
+	private void drain() {
+		ringLock.lock();
+		try {
+			while (true) {
+				while (!closed && 0 == size) {
+					notEmpty.await();
+				}
+				long deadline = System.nanoTime() + flushIntervalNanos;
+				long remaining = flushIntervalNanos;
+				while (!closed && 0 == flushRequests && size < ring.length / 2 && remaining > 0) {
+					notEmpty.awaitNanos(remaining);
+					remaining = deadline - System.nanoTime();
+				}
+				if (0 != size) {
+					drainBatch();
+				}
+				if (closed && 0 == size) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			failure = new InterruptedIOException("The background thread has been interrupted");
+			notFull.signalAll();
+			drained.signalAll();
+		} catch (IOException e) {
+			failure = e;
+			notFull.signalAll();
+			drained.signalAll();
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	private void drainBatch() throws IOException {
+		char[] ring = this.ring;
+		int head = this.head;
+		int length = size;
+		long target = enqueuedCharacters;
+		ringLock.unlock();
+		long start = System.nanoTime();
+		try {
+			int firstLength = Math.min(length, ring.length - head);
+			writer.write(ring, head, firstLength);
+			writer.write(ring, 0, length - firstLength);
+			writer.flush();
+		} finally {
+			ringLock.lock();
+		}
+		long nanos = System.nanoTime() - start;
+		batches++;
+		totalBatchNanos += nanos;
+		maximumBatchNanos = Math.max(maximumBatchNanos, nanos);
+		this.head = (this.head + length) % this.ring.length;
+		size -= length;
+		drainedCharacters = target;
+		notFull.signalAll();
+		drained.signalAll();
+	}
+
+	/**
+	 * Blocks until all characters that have been written before are written to
+	 * and flushed by the underlying {@link Writer}.
+	 * 
+	 * @throws IOException
+	 *             If this {@link AsynchronousWriter} has been closed, if the
+	 *             current thread has been interrupted or if writing to the
+	 *             underlying {@link Writer} failed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ringLock.lock();
+		try {
+			checkOpen();
+			long target = enqueuedCharacters;
+			flushRequests++;
+			try {
+				notEmpty.signal();
+				while (drainedCharacters < target) {
+					drained.await();
+					if (null != failure) {
+						checkOpen();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the ring buffer to be drained");
+			} finally {
+				flushRequests--;
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Drains the ring buffer, stops the background thread and closes the
+	 * underlying {@link Writer}.
+	 * 
+	 * @throws IOException
+	 *             If the current thread has been interrupted or if writing to
+	 *             or closing the underlying {@link Writer} failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		ringLock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			notEmpty.signal();
+			notFull.signalAll();
+		} finally {
+			ringLock.unlock();
+		}
+		try {
+			drainer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the ring buffer to be drained");
+		} finally {
+			writer.close();
+		}
+		ringLock.lock();
+		try {
+			if (null != failure) {
+				throw new IOException("Writing to the underlying writer failed", failure);
+			}
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of characters currently held in the ring buffer.
+	 * 
+	 * @return The queue depth.
+	 */
+	public int getQueueDepth() {
+		ringLock.lock();
+		try {
+			return size;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of characters that have been held in the ring
+	 * buffer.
+	 * 
+	 * @return The maximum queue depth.
+	 */
+	public int getMaximumQueueDepth() {
+		ringLock.lock();
+		try {
+			return maximumQueueDepth;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the current capacity of the ring buffer.
+	 * 
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		ringLock.lock();
+		try {
+			return ring.length;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of characters that have been dropped, because the
+	 * ring buffer was full.
+	 * 
+	 * @return The number of dropped characters.
+	 */
+	public long getDroppedCharacters() {
+		ringLock.lock();
+		try {
+			return droppedCharacters;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of batches that have been written to and flushed by
+	 * the underlying {@link Writer}.
+	 * 
+	 * @return The number of batches.
+	 */
+	public long getBatches() {
+		ringLock.lock();
+		try {
+			return batches;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the average time, in nanoseconds, it took to write and flush a
+	 * batch.
+	 * 
+	 * @return The average flush latency or {@code 0}, if no batches have been
+	 *         written.
+	 */
+	public double getAverageFlushNanos() {
+		ringLock.lock();
+		try {
+			return 0 == batches ? 0 : (double) totalBatchNanos / batches;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the maximum time, in nanoseconds, it took to write and flush a
+	 * batch.
+	 * 
+	 * @return The maximum flush latency.
+	 */
+	public long getMaximumFlushNanos() {
+		ringLock.lock();
+		try {
+			return maximumBatchNanos;
+		} finally {
+			ringLock.unlock();
+		}
+	}
+
+}
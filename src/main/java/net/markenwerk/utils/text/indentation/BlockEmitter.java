@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link BlockEmitter} emits lines of block structured text to an
+ * {@link Appendable}, indented with a given {@link Indentation} and the current
+ * level.
+ * 
+ * <p>
+ * Every line, except the first one, is preceded by the line break of the
+ * {@link Indentation}, as included by
+ * {@link Indentation#get(int, boolean)}. Therefore, the emitted text doesn't
+ * end with a line break. Empty lines are not indented.
+ * 
+ * <p>
+ * The line break and indentation string for the current level is obtained from
+ * the {@link Indentation} once per level change. If the {@link Appendable} is a
+ * {@link Writer}, the line break, the indentation string and the content of a
+ * line are copied into an internal buffer and written with a single call.
+ * Otherwise, the line break and indentation string and the content of a line
+ * are appended directly.
+ * 
+ * <p>
+ * A {@link BlockEmitter} is not thread-safe.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class BlockEmitter {
+
+	private static final int INITIAL_BUFFER_SIZE = 256;
+
+	private final Appendable appendable;
+
+	private final Writer writer;
+
+	private final Indentation indentation;
+
+	private final String lineBreak;
+
+	private int level;
+
+	private boolean firstLine = true;
+
+	private String prefix;
+
+	private char[] buffer;
+
+	private int prefixLength = -1;
+
+	/**
+	 * Creates a new {@link BlockEmitter} with initial level {@code 0}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null}.
+	 */
+	public BlockEmitter(Appendable appendable, Indentation indentation) throws IllegalArgumentException {
+		this(appendable, indentation, 0);
+	}
+
+	/**
+	 * Creates a new {@link BlockEmitter}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param level
+	 *            The initial level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null} or if the given
+	 *             level is negative.
+	 */
+	public BlockEmitter(Appendable appendable, Indentation indentation, int level) throws IllegalArgumentException {
+		if (null == appendable) {
+			throw new IllegalArgumentException("The given appendable is null");
+		}
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+		this.appendable = appendable;
+		this.writer = appendable instanceof Writer ? (Writer) appendable : null;
+		this.indentation = indentation;
+		this.lineBreak = indentation.getLineBreak();
+		this.level = level;
+	}
+
+	/**
+	 * Returns the current level.
+	 * 
+	 * @return The current level.
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Begins a new block by increasing the current level by one.
+	 * 
+	 * @return This {@link BlockEmitter}.
+	 */
+	public BlockEmitter beginBlock() {
+		setLevel(level + 1);
+		return this;
+	}
+
+	/**
+	 * Emits the given line with the current level and begins a new block by
+	 * increasing the current level by one.
+	 * 
+	 * @param line
+	 *            The line that opens the new block.
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given line is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the {@link Appendable} failed.
+	 */
+	public BlockEmitter beginBlock(CharSequence line) throws IllegalArgumentException, IOException {
+		line(line);
+		return beginBlock();
+	}
+
+	/**
+	 * Ends the current block by decreasing the current level by one.
+	 * 
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalStateException
+	 *             If the current level is {@code 0}.
+	 */
+	public BlockEmitter endBlock() throws IllegalStateException {
+		if (0 == level) {
+			throw new IllegalStateException("The current level is zero");
+		}
+		setLevel(level - 1);
+		return this;
+	}
+
+	/**
+	 * Ends the current block by decreasing the current level by one and emits
+	 * the given line with the decreased level.
+	 * 
+	 * @param line
+	 *            The line that closes the current block.
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given line is {@literal null}.
+	 * @throws IllegalStateException
+	 *             If the current level is {@code 0}.
+	 * @throws IOException
+	 *             If appending to the {@link Appendable} failed.
+	 */
+	public BlockEmitter endBlock(CharSequence line) throws IllegalArgumentException, IllegalStateException,
+			IOException {
+		if (null == line) {
+			throw new IllegalArgumentException("The given line is null");
+		}
+		return endBlock().line(line);
+	}
+
+	private void setLevel(int level) {
+		this.level = level;
+		this.prefix = null;
+		this.prefixLength = -1;
+	}
+
+	/**
+	 * Emits the given line with the current level.
+	 * 
+	 * <p>
+	 * The given line should not contain any line breaks.
+	 * 
+	 * @param line
+	 *            The line to be emitted.
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given line is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the {@link Appendable} failed.
+	 */
+	public BlockEmitter line(CharSequence line) throws IllegalArgumentException, IOException {
+		if (null == line) {
+			throw new IllegalArgumentException("The given line is null");
+		}
+		boolean firstLine = this.firstLine;
+		this.firstLine = false;
+		int length = line.length();
+		if (0 == length) {
+			String emptyPrefix = indentation.get(0, true);
+			int start = firstLine ? getLineBreakLength(emptyPrefix) : 0;
+			appendable.append(emptyPrefix, start, emptyPrefix.length());
+		} else if (null != writer) {
+			int prefixLength = getPrefixLength();
+			int start = firstLine ? getLineBreakLength(prefix) : 0;
+			int end = prefixLength + length;
+			if (end > buffer.length) {
+				char[] newBuffer = new char[Math.max(end, buffer.length * 2)];
+				System.arraycopy(buffer, 0, newBuffer, 0, prefixLength);
+				buffer = newBuffer;
+			}
+			IndentationBuffer.getChars(line, 0, length, buffer, prefixLength);
+			writer.write(buffer, start, end - start);
+		} else {
+			String prefix = getPrefix();
+			int start = firstLine ? getLineBreakLength(prefix) : 0;
+			appendable.append(prefix, start, prefix.length());
+			appendable.append(line);
+		}
+		return this;
+	}
+
+	/**
+	 * Emits the given lines with the current level.
+	 * 
+	 * @param lines
+	 *            The lines to be emitted.
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given array is {@literal null} or if any of the given
+	 *             lines is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the {@link Appendable} failed.
+	 */
+	public BlockEmitter lines(CharSequence... lines) throws IllegalArgumentException, IOException {
+		if (null == lines) {
+			throw new IllegalArgumentException("The given lines are null");
+		}
+		for (CharSequence line : lines) {
+			line(line);
+		}
+		return this;
+	}
+
+	/**
+	 * Emits the given lines with the current level.
+	 * 
+	 * @param lines
+	 *            The lines to be emitted.
+	 * @return This {@link BlockEmitter}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Iterable} is {@literal null} or if any of
+	 *             the given lines is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the {@link Appendable} failed.
+	 */
+	public BlockEmitter lines(Iterable<? extends CharSequence> lines) throws IllegalArgumentException, IOException {
+		if (null == lines) {
+			throw new IllegalArgumentException("The given lines are null");
+		}
+		for (CharSequence line : lines) {
+			line(line);
+		}
+		return this;
+	}
+
+	private int getLineBreakLength(String prefix) {
+		return prefix.startsWith(lineBreak) ? lineBreak.length() : 0;
+	}
+
+	private String getPrefix() {
+		if (null == prefix) {
+			prefix = indentation.get(level, true);
+		}
+		return prefix;
+	}
+
+	private int getPrefixLength() {
+		if (-1 == prefixLength) {
+			String prefix = getPrefix();
+			prefixLength = prefix.length();
+			if (null == buffer || buffer.length < prefixLength) {
+				buffer = new char[Math.max(INITIAL_BUFFER_SIZE, prefixLength * 2)];
+			}
+			prefix.getChars(0, prefixLength, buffer, 0);
+		}
+		return prefixLength;
+	}
+
+}
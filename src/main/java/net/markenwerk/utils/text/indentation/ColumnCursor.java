@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link ColumnCursor} is an {@link Appendable} that appends to another
+ * {@link Appendable} and tracks the column at which the next character will
+ * be appended, such that continuation lines can be aligned to a column, e.g.
+ * to an opening parenthesis.
+ * 
+ * <p>
+ * A line feed or a carriage return resets the column to {@code 0}, a tab
+ * advances the column to the next multiple of the tab width and every other
+ * character advances the column by one.
+ * 
+ * <p>
+ * Padding is appended from the same process-wide space buffer that is used by
+ * {@link WhitespaceIndentation}, without creating any intermediate strings.
+ * {@link ColumnCursor#appendPadding(Appendable, int, int)} appends padding
+ * without a {@link ColumnCursor}, if the current column is known otherwise.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class ColumnCursor implements Appendable {
+
+	/**
+	 * The tab width, if no specific tab width is given.
+	 */
+	public static final int DEFAULT_TAB_WIDTH = 4;
+
+	private static final IndentationBuffer SPACES = IndentationBuffer.getShared(Whitespace.SPACE, LineBreak.NONE);
+
+	private final Appendable appendable;
+
+	private final Indentation indentation;
+
+	private final int tabWidth;
+
+	private int column;
+
+	/**
+	 * Creates a new {@link ColumnCursor} with the
+	 * {@link ColumnCursor#DEFAULT_TAB_WIDTH default} tab width.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null}.
+	 */
+	public ColumnCursor(Appendable appendable, Indentation indentation) throws IllegalArgumentException {
+		this(appendable, indentation, DEFAULT_TAB_WIDTH);
+	}
+
+	/**
+	 * Creates a new {@link ColumnCursor}.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param tabWidth
+	 *            The tab width to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null} or if the given
+	 *             tab width is not positive.
+	 */
+	public ColumnCursor(Appendable appendable, Indentation indentation, int tabWidth)
+			throws IllegalArgumentException {
+		if (null == appendable) {
+			throw new IllegalArgumentException("The given appendable is null");
+		}
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (tabWidth < 1) {
+			throw new IllegalArgumentException("The given tab width is not positive");
+		}
+		this.appendable = appendable;
+		this.indentation = indentation;
+		this.tabWidth = tabWidth;
+	}
+
+	/**
+	 * Returns the column at which the next character will be appended.
+	 * 
+	 * @return The current column.
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	@Override
+	public ColumnCursor append(CharSequence sequence) throws IOException {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		return append(sequence, 0, sequence.length());
+	}
+
+	@Override
+	public ColumnCursor append(CharSequence sequence, int start, int end) throws IOException {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		appendable.append(sequence, start, end);
+		int lineStart = start;
+		for (int i = end - 1; i >= start; i--) {
+			char c = sequence.charAt(i);
+			if ('\n' == c || '\r' == c) {
+				column = 0;
+				lineStart = i + 1;
+				break;
+			}
+		}
+		for (int i = lineStart; i < end; i++) {
+			column = advance(column, sequence.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public ColumnCursor append(char c) throws IOException {
+		appendable.append(c);
+		if ('\n' == c || '\r' == c) {
+			column = 0;
+		} else {
+			column = advance(column, c);
+		}
+		return this;
+	}
+
+	private int advance(int column, char c) {
+		if ('\t' == c) {
+			return column + tabWidth - column % tabWidth;
+		}
+		return column + 1;
+	}
+
+	/**
+	 * Appends spaces until the current column reaches the given column. Does
+	 * nothing, if the current column is not before the given column.
+	 * 
+	 * @param column
+	 *            The column to pad to.
+	 * @return This {@link ColumnCursor}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given column is negative.
+	 * @throws IOException
+	 *             If appending to the underlying {@link Appendable} failed.
+	 */
+	public ColumnCursor padToColumn(int column) throws IllegalArgumentException, IOException {
+		appendPadding(appendable, this.column, column);
+		this.column = Math.max(this.column, column);
+		return this;
+	}
+
+	/**
+	 * Pads to the column at which the indentation string for the given level
+	 * ends, plus the given offset.
+	 * 
+	 * <p>
+	 * If the current column is {@code 0}, the indentation string for the given
+	 * level is appended, followed by the given number of spaces. Otherwise,
+	 * spaces are appended until the current column reaches the target column.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param offset
+	 *            The number of columns after the indentation string.
+	 * @return This {@link ColumnCursor}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative or if the given offset is
+	 *             negative.
+	 * @throws IOException
+	 *             If appending to the underlying {@link Appendable} failed.
+	 */
+	public ColumnCursor padToLevel(int level, int offset) throws IllegalArgumentException, IOException {
+		if (offset < 0) {
+			throw new IllegalArgumentException("The given offset is negative");
+		}
+		CharSequence indentationSequence = indentation.getCharSequence(level, false);
+		int levelColumn = 0;
+		for (int i = 0, n = indentationSequence.length(); i < n; i++) {
+			levelColumn = advance(levelColumn, indentationSequence.charAt(i));
+		}
+		if (0 == column) {
+			indentation.appendTo(appendable, level, false);
+			column = levelColumn;
+		}
+		return padToColumn(levelColumn + offset);
+	}
+
+	/**
+	 * Appends spaces to the given {@link Appendable} until the given current
+	 * column reaches the given column. Does nothing, if the given current
+	 * column is not before the given column.
+	 * 
+	 * @param appendable
+	 *            The {@link Appendable} to append to.
+	 * @param currentColumn
+	 *            The current column.
+	 * @param column
+	 *            The column to pad to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Appendable} is {@literal null} or if one
+	 *             of the given columns is negative.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed.
+	 */
+	public static void appendPadding(Appendable appendable, int currentColumn, int column)
+			throws IllegalArgumentException, IOException {
+		if (null == appendable) {
+			throw new IllegalArgumentException("The given appendable is null");
+		}
+		if (currentColumn < 0) {
+			throw new IllegalArgumentException("The given current column is negative");
+		}
+		if (column < 0) {
+			throw new IllegalArgumentException("The given column is negative");
+		}
+		int length = column - currentColumn;
+		if (length <= 0) {
+			return;
+		}
+		if (appendable instanceof Writer) {
+			SPACES.writeTo((Writer) appendable, 0, length);
+		} else if (appendable instanceof StringBuilder) {
+			StringBuilder builder = (StringBuilder) appendable;
+			char[] chars = SPACES.getChars(length);
+			int offset = SPACES.getPrefixLength();
+			while (length > 0) {
+				int chunkLength = Math.min(length, chars.length - offset);
+				builder.append(chars, offset, chunkLength);
+				length -= chunkLength;
+			}
+		} else {
+			appendable.append(SPACES.getSequence(0, length));
+		}
+	}
+
+}
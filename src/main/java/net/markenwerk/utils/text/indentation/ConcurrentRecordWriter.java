@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ConcurrentRecordWriter} writes records of indented text, that are
+ * assembled concurrently by multiple threads, to a shared {@link Writer}.
+ * 
+ * <p>
+ * Every thread obtains an {@link IndentedRecord} with
+ * {@link ConcurrentRecordWriter#newRecord()}, assembles the record without any
+ * coordination with other threads and {@link IndentedRecord#commit() commits}
+ * it. Committed records are put into a lock-free queue and are written to the
+ * {@link Writer} as a whole, in the order in which they have been committed.
+ * Records never interleave.
+ * 
+ * <p>
+ * After a record has been put into the queue, the committing thread waits
+ * until no other thread is writing records and then writes the queued records
+ * until its own record has been written, unless another thread has already
+ * written it. A committing thread therefore never writes records that have
+ * been committed after its own record and returns after a bounded amount of
+ * work, even if other threads keep committing records. The character arrays
+ * of written records are pooled and reused. No monitors are used, such that
+ * virtual threads are never pinned to their carrier threads.
+ * 
+ * <p>
+ * Because a record may be written by another thread than the one that
+ * committed it, an {@link IOException} thrown by the {@link Writer} is thrown
+ * in the thread that wrote the record, which may not be the thread that
+ * committed it. Every subsequent attempt to commit a record or to flush this
+ * {@link ConcurrentRecordWriter} fails with an {@link IOException} that has
+ * the original {@link IOException} as its cause.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class ConcurrentRecordWriter implements Flushable, Closeable {
+
+	/**
+	 * The initial capacity, in characters, of a newly created
+	 * {@link IndentedRecord}.
+	 */
+	public static final int INITIAL_RECORD_CAPACITY = 256;
+
+	/**
+	 * The maximum capacity, in characters, of an {@link IndentedRecord} that is
+	 * pooled for reuse.
+	 */
+	public static final int MAXIMUM_POOLED_CAPACITY = 64 * 1024;
+
+	private final Queue<IndentedRecord> records = new ConcurrentLinkedQueue<IndentedRecord>();
+
+	private final Queue<IndentedRecord> pool = new ConcurrentLinkedQueue<IndentedRecord>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Writer writer;
+
+	private final Indentation indentation;
+
+	private volatile boolean closed;
+
+	private volatile IOException failure;
+
+	/**
+	 * Creates a new {@link ConcurrentRecordWriter}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used by all
+	 *            {@link IndentedRecord IndentedRecords}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Writer} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null}.
+	 */
+	public ConcurrentRecordWriter(Writer writer, Indentation indentation) throws IllegalArgumentException {
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		this.writer = writer;
+		this.indentation = indentation;
+	}
+
+	/**
+	 * Returns an empty {@link IndentedRecord}, that is confined to the current
+	 * thread until it is committed.
+	 * 
+	 * @return The {@link IndentedRecord}.
+	 */
+	public IndentedRecord newRecord() {
+		IndentedRecord record = pool.poll();
+		if (null == record) {
+			record = new IndentedRecord(this, indentation, INITIAL_RECORD_CAPACITY);
+		}
+		return record;
+	}
+
+	void commit(IndentedRecord record) throws IOException {
+		if (closed) {
+			release(record);
+			throw new IOException("The record writer is closed");
+		}
+		record.setQueued(true);
+		records.offer(record);
+		lock.lock();
+		try {
+			IndentedRecord queuedRecord;
+			while (record.isQueued() && null != (queuedRecord = records.poll())) {
+				write(queuedRecord);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void writeRecords() throws IOException {
+		IndentedRecord record;
+		while (null != (record = records.poll())) {
+			write(record);
+		}
+	}
+
+	private void write(IndentedRecord record) throws IOException {
+		try {
+			if (null != failure) {
+				throw new IOException("A previous write failed", failure);
+			}
+			if (closed) {
+				throw new IOException("The record writer is closed");
+			}
+			writer.write(record.getChars(), 0, record.length());
+		} catch (IOException e) {
+			if (null == failure) {
+				failure = e;
+			}
+			throw e;
+		} finally {
+			record.setQueued(false);
+			release(record);
+		}
+	}
+
+	private void release(IndentedRecord record) {
+		record.reset();
+		if (record.getCapacity() <= MAXIMUM_POOLED_CAPACITY) {
+			pool.offer(record);
+		}
+	}
+
+	/**
+	 * Writes all committed records and flushes the {@link Writer}.
+	 * 
+	 * @throws IOException
+	 *             If this {@link ConcurrentRecordWriter} has been closed or if
+	 *             writing to or flushing the {@link Writer} failed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IOException("The record writer is closed");
+			}
+			writeRecords();
+			writer.flush();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes all committed records and closes the {@link Writer}. Records that
+	 * are committed afterwards are rejected.
+	 * 
+	 * @throws IOException
+	 *             If writing to or closing the {@link Writer} failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			if (!closed) {
+				try {
+					writeRecords();
+				} finally {
+					closed = true;
+					writer.close();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * A {@link Dedenter} removes the common leading whitespace from all lines of a
+ * text and indents the remaining lines with a given {@link Indentation} and
+ * level.
+ * 
+ * <p>
+ * The common leading whitespace is the longest sequence of space and tab
+ * characters that every non-blank line starts with. Blank lines are not taken
+ * into account and are emitted without any whitespace. Lines are terminated by
+ * a line feed character, optionally preceded by a carriage return character,
+ * and are separated by the line break of the {@link Indentation} in the
+ * dedented text.
+ * 
+ * <p>
+ * The text is scanned twice. The first pass determines the common leading
+ * whitespace and the second pass emits the dedented lines, using
+ * {@link Indentation#appendTo(Appendable, int, boolean)} for line breaks and
+ * indentation strings, and bulk writes of the remaining content of every line.
+ * Text that is read from a {@link Reader} is kept in memory during the first
+ * pass, up to a given threshold, and is spilled to a temporary file
+ * afterwards.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class Dedenter {
+
+	/**
+	 * The number of characters, that is kept in memory, if no specific spill
+	 * threshold is given.
+	 */
+	public static final int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Indentation indentation;
+
+	private final int spillThreshold;
+
+	/**
+	 * Creates a new {@link Dedenter} using the
+	 * {@link Dedenter#DEFAULT_SPILL_THRESHOLD default} spill threshold.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public Dedenter(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, DEFAULT_SPILL_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new {@link Dedenter}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param spillThreshold
+	 *            The number of characters read from a {@link Reader}, that is
+	 *            kept in memory.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if the
+	 *             given spill threshold is negative.
+	 */
+	public Dedenter(Indentation indentation, int spillThreshold) throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (spillThreshold < 0) {
+			throw new IllegalArgumentException("The given spill threshold is negative");
+		}
+		this.indentation = indentation;
+		this.spillThreshold = spillThreshold;
+	}
+
+	/**
+	 * Dedents the given {@link CharSequence} and appends it, indented with the
+	 * given level, to the given {@link Appendable}.
+	 * 
+	 * @param input
+	 *            The {@link CharSequence} to be dedented.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * @param level
+	 *            The level to indent the dedented lines with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link CharSequence} is {@literal null} or if
+	 *             the given {@link Appendable} is {@literal null} or if the
+	 *             given level is negative.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed.
+	 */
+	public void dedent(CharSequence input, Appendable output, int level) throws IllegalArgumentException,
+			IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		checkLevel(level);
+		int length = input.length();
+		char[] buffer = new char[Math.min(BUFFER_SIZE, length)];
+		Scan scan = new Scan();
+		for (int offset = 0; offset < length; offset += buffer.length) {
+			int chunkLength = Math.min(buffer.length, length - offset);
+			IndentationBuffer.getChars(input, offset, offset + chunkLength, buffer, 0);
+			scan.process(buffer, 0, chunkLength);
+		}
+		Writer writer = output instanceof Writer ? (Writer) output : new AppendableWriter(output);
+		Emission emission = new Emission(writer, level, scan.getCommonLength());
+		for (int offset = 0; offset < length; offset += buffer.length) {
+			int chunkLength = Math.min(buffer.length, length - offset);
+			IndentationBuffer.getChars(input, offset, offset + chunkLength, buffer, 0);
+			emission.process(buffer, 0, chunkLength);
+		}
+		emission.finish();
+	}
+
+	/**
+	 * Dedents the text read from the given {@link Reader} and writes it,
+	 * indented with the given level, to the given {@link Writer}.
+	 * 
+	 * <p>
+	 * Neither the given {@link Reader} nor the given {@link Writer} are closed
+	 * or flushed.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to read from.
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * @param level
+	 *            The level to indent the dedented lines with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reader} is {@literal null} or if the
+	 *             given {@link Writer} is {@literal null} or if the given level
+	 *             is negative.
+	 * @throws IOException
+	 *             If reading from the given {@link Reader}, writing to the
+	 *             given {@link Writer} or using the temporary file failed.
+	 */
+	public void dedent(Reader reader, Writer writer, int level) throws IllegalArgumentException, IOException {
+		if (null == reader) {
+			throw new IllegalArgumentException("The given reader is null");
+		}
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		checkLevel(level);
+		Scan scan = new Scan();
+		char[] chars = new char[Math.min(BUFFER_SIZE, spillThreshold)];
+		int count = 0;
+		File spillFile = null;
+		Writer spillWriter = null;
+		try {
+			char[] buffer = new char[BUFFER_SIZE];
+			int length;
+			while (-1 != (length = reader.read(buffer))) {
+				scan.process(buffer, 0, length);
+				if (null == spillWriter && count + length > spillThreshold) {
+					spillFile = File.createTempFile("dedenter", ".tmp");
+					spillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile),
+							IndentationBuffer.CHARSET));
+					spillWriter.write(chars, 0, count);
+				}
+				if (null != spillWriter) {
+					spillWriter.write(buffer, 0, length);
+				} else {
+					if (count + length > chars.length) {
+						int newLength = Math.min(spillThreshold, Math.max(count + length, chars.length * 2));
+						char[] newChars = new char[newLength];
+						System.arraycopy(chars, 0, newChars, 0, count);
+						chars = newChars;
+					}
+					System.arraycopy(buffer, 0, chars, count, length);
+					count += length;
+				}
+			}
+			Emission emission = new Emission(writer, level, scan.getCommonLength());
+			if (null == spillWriter) {
+				emission.process(chars, 0, count);
+			} else {
+				spillWriter.close();
+				spillWriter = null;
+				chars = null;
+				Reader spillReader = new InputStreamReader(new FileInputStream(spillFile), IndentationBuffer.CHARSET);
+				try {
+					while (-1 != (length = spillReader.read(buffer))) {
+						emission.process(buffer, 0, length);
+					}
+				} finally {
+					spillReader.close();
+				}
+			}
+			emission.finish();
+		} finally {
+			if (null != spillWriter) {
+				spillWriter.close();
+			}
+			if (null != spillFile) {
+				spillFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Dedents the text read from the given {@link InputStream} and writes it,
+	 * indented with the given level, to the given {@link OutputStream}, using
+	 * the given {@link Charset} to decode and encode the text.
+	 * 
+	 * <p>
+	 * Neither the given {@link InputStream} nor the given {@link OutputStream}
+	 * are closed, but the given {@link OutputStream} is flushed.
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} to read from.
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * @param level
+	 *            The level to indent the dedented lines with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link InputStream} is {@literal null} or if the
+	 *             given {@link OutputStream} is {@literal null} or if the given
+	 *             {@link Charset} is {@literal null} or if the given level is
+	 *             negative.
+	 * @throws IOException
+	 *             If reading from the given {@link InputStream}, writing to the
+	 *             given {@link OutputStream} or using the temporary file
+	 *             failed.
+	 */
+	public void dedent(InputStream inputStream, OutputStream outputStream, Charset charset, int level)
+			throws IllegalArgumentException, IOException {
+		if (null == inputStream) {
+			throw new IllegalArgumentException("The given input stream is null");
+		}
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		if (null == charset) {
+			throw new IllegalArgumentException("The given charset is null");
+		}
+		Writer writer = new OutputStreamWriter(outputStream, charset);
+		dedent(new InputStreamReader(inputStream, charset), writer, level);
+		writer.flush();
+	}
+
+	private static void checkLevel(int level) {
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+	}
+
+	private static boolean isWhitespace(char c) {
+		return ' ' == c || '\t' == c;
+	}
+
+	private static final class Scan {
+
+		private final StringBuilder candidate = new StringBuilder();
+
+		private String prefix;
+
+		private int commonLength = -1;
+
+		private boolean leading = true;
+
+		private boolean matching = true;
+
+		private int matchLength;
+
+		public void process(char[] buffer, int offset, int length) {
+			int end = offset + length;
+			for (int i = offset; i < end; i++) {
+				char c = buffer[i];
+				if ('\n' == c) {
+					leading = true;
+					matching = true;
+					matchLength = 0;
+					candidate.setLength(0);
+				} else if (leading) {
+					if (isWhitespace(c)) {
+						if (matching) {
+							if (-1 == commonLength) {
+								candidate.append(c);
+								matchLength++;
+							} else if (matchLength < commonLength && prefix.charAt(matchLength) == c) {
+								matchLength++;
+							} else {
+								matching = false;
+							}
+						}
+					} else if ('\r' == c) {
+						matching = false;
+					} else {
+						leading = false;
+						if (-1 == commonLength) {
+							prefix = candidate.toString();
+							commonLength = matchLength;
+						} else {
+							commonLength = Math.min(commonLength, matchLength);
+						}
+					}
+				}
+			}
+		}
+
+		public int getCommonLength() {
+			return Math.max(0, commonLength);
+		}
+
+	}
+
+	private final class Emission {
+
+		private final StringBuilder pending = new StringBuilder();
+
+		private final Writer writer;
+
+		private final int level;
+
+		private final int commonLength;
+
+		private boolean firstLine = true;
+
+		private boolean leading = true;
+
+		private boolean carriageReturn;
+
+		private int skipped;
+
+		public Emission(Writer writer, int level, int commonLength) {
+			this.writer = writer;
+			this.level = level;
+			this.commonLength = commonLength;
+		}
+
+		public void process(char[] buffer, int offset, int length) throws IOException {
+			if (0 == length) {
+				return;
+			}
+			int end = offset + length;
+			if (carriageReturn) {
+				carriageReturn = false;
+				if ('\n' != buffer[offset]) {
+					writer.write('\r');
+				}
+			}
+			int start = offset;
+			for (int i = offset; i < end; i++) {
+				char c = buffer[i];
+				if (leading) {
+					if ('\n' == c) {
+						endBlankLine();
+					} else if (isWhitespace(c) && skipped < commonLength) {
+						skipped++;
+					} else if (isWhitespace(c) || '\r' == c) {
+						pending.append(c);
+					} else {
+						beginLine();
+						start = i;
+					}
+				} else if ('\n' == c) {
+					int contentEnd = i > start && '\r' == buffer[i - 1] ? i - 1 : i;
+					writer.write(buffer, start, contentEnd - start);
+					leading = true;
+				}
+			}
+			if (!leading) {
+				int contentEnd = end;
+				if ('\r' == buffer[end - 1] && end - 1 >= start) {
+					contentEnd--;
+					carriageReturn = true;
+				}
+				writer.write(buffer, start, contentEnd - start);
+			}
+		}
+
+		private void beginLine() throws IOException {
+			indentation.appendTo(writer, level, !firstLine);
+			firstLine = false;
+			if (0 != pending.length()) {
+				writer.append(pending);
+				pending.setLength(0);
+			}
+			leading = false;
+			skipped = 0;
+		}
+
+		private void endBlankLine() throws IOException {
+			if (!firstLine) {
+				indentation.appendTo(writer, 0, true);
+			}
+			firstLine = false;
+			pending.setLength(0);
+			skipped = 0;
+		}
+
+		public void finish() throws IOException {
+			if (carriageReturn) {
+				carriageReturn = false;
+				writer.write('\r');
+			}
+			if (leading) {
+				endBlankLine();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * A {@link DetectedIndentation} describes the indentation that has been
+ * detected by an {@link IndentationDetector}.
+ * 
+ * <p>
+ * Every detected property has a confidence between {@code 0} and {@code 1},
+ * which is the fraction of the inspected samples that agree with the detected
+ * value. A confidence of {@code 0} indicates that no samples have been found
+ * and that a default value is used.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class DetectedIndentation {
+
+	private final Whitespace whitespace;
+
+	private final int length;
+
+	private final LineBreak lineBreak;
+
+	private final double whitespaceConfidence;
+
+	private final double lengthConfidence;
+
+	private final double lineBreakConfidence;
+
+	/**
+	 * Creates a new {@link DetectedIndentation}.
+	 * 
+	 * @param whitespace
+	 *            The detected {@link Whitespace} character.
+	 * @param length
+	 *            The detected indentation length.
+	 * @param lineBreak
+	 *            The detected {@link LineBreak}.
+	 * @param whitespaceConfidence
+	 *            The confidence of the detected {@link Whitespace} character.
+	 * @param lengthConfidence
+	 *            The confidence of the detected indentation length.
+	 * @param lineBreakConfidence
+	 *            The confidence of the detected {@link LineBreak}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Whitespace} character is {@literal null}
+	 *             or if the given indentation length is negative or if the
+	 *             given {@link LineBreak} is {@literal null}.
+	 */
+	public DetectedIndentation(Whitespace whitespace, int length, LineBreak lineBreak, double whitespaceConfidence,
+			double lengthConfidence, double lineBreakConfidence) throws IllegalArgumentException {
+		if (null == whitespace) {
+			throw new IllegalArgumentException("The given whitespace is null");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("The given length is negative");
+		}
+		if (null == lineBreak) {
+			throw new IllegalArgumentException("The given line break is null");
+		}
+		this.whitespace = whitespace;
+		this.length = length;
+		this.lineBreak = lineBreak;
+		this.whitespaceConfidence = whitespaceConfidence;
+		this.lengthConfidence = lengthConfidence;
+		this.lineBreakConfidence = lineBreakConfidence;
+	}
+
+	/**
+	 * Returns a canonical {@link WhitespaceIndentation} that uses the detected
+	 * {@link Whitespace} character, indentation length and {@link LineBreak}.
+	 * 
+	 * @return The {@link Indentation}.
+	 */
+	public Indentation getIndentation() {
+		return WhitespaceIndentation.of(whitespace, length, lineBreak);
+	}
+
+	/**
+	 * Returns the detected {@link Whitespace} character.
+	 * 
+	 * @return The {@link Whitespace} character.
+	 */
+	public Whitespace getWhitespace() {
+		return whitespace;
+	}
+
+	/**
+	 * Returns the detected indentation length.
+	 * 
+	 * @return The indentation length.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns the detected {@link LineBreak}.
+	 * 
+	 * @return The {@link LineBreak}.
+	 */
+	public LineBreak getLineBreak() {
+		return lineBreak;
+	}
+
+	/**
+	 * Returns the confidence of the detected {@link Whitespace} character.
+	 * 
+	 * @return The confidence.
+	 */
+	public double getWhitespaceConfidence() {
+		return whitespaceConfidence;
+	}
+
+	/**
+	 * Returns the confidence of the detected indentation length.
+	 * 
+	 * @return The confidence.
+	 */
+	public double getLengthConfidence() {
+		return lengthConfidence;
+	}
+
+	/**
+	 * Returns the confidence of the detected {@link LineBreak}.
+	 * 
+	 * @return The confidence.
+	 */
+	public double getLineBreakConfidence() {
+		return lineBreakConfidence;
+	}
+
+	@Override
+	public String toString() {
+		return "DetectedIndentation [whitespace=" + whitespace + ", length=" + length + ", lineBreak=" + lineBreak
+				+ ", whitespaceConfidence=" + whitespaceConfidence + ", lengthConfidence=" + lengthConfidence
+				+ ", lineBreakConfidence=" + lineBreakConfidence + "]";
+	}
+
+}
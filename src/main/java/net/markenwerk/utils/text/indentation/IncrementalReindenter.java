@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link IncrementalReindenter} calculates the {@link TextEdit TextEdits}
+ * that are necessary to reindent the lines of a document that are affected by
+ * an edit, without processing the whole document.
+ * 
+ * <p>
+ * The level of a line is the nesting depth of brackets ({@code (}, {@code [}
+ * and {@code {}) at the start of the line, reduced by one if the line starts
+ * with a closing bracket. Brackets inside of string or character literals
+ * that don't span multiple lines are ignored.
+ * 
+ * <p>
+ * The nesting depth is derived from the closest non-blank line before the
+ * edited range, whose existing indentation is assumed to be correct. Its
+ * leading whitespace is converted into a level, where a tab character
+ * advances the column to the next multiple of the tab width and the width of
+ * the indentation string for level {@code 1} makes up one level. All lines of
+ * the edited range are then reindented, and subsequent lines are reindented
+ * until a non-blank line is found whose existing indentation already matches
+ * its level. The cost is therefore proportional to the size of the edited
+ * range and the lines whose level has changed, not to the size of the
+ * document.
+ * 
+ * <p>
+ * Leading whitespace of blank lines inside the edited range is removed.
+ * Blank lines outside the edited range are left untouched.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IncrementalReindenter {
+
+	/**
+	 * The tab width to be used, if no specific tab width is given.
+	 */
+	public static final int DEFAULT_TAB_WIDTH = Reindenter.DEFAULT_WIDTH;
+
+	private final Indentation indentation;
+
+	private final int tabWidth;
+
+	private final int levelWidth;
+
+	/**
+	 * Creates a new {@link IncrementalReindenter} using the
+	 * {@link IncrementalReindenter#DEFAULT_TAB_WIDTH default} tab width.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public IncrementalReindenter(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, DEFAULT_TAB_WIDTH);
+	}
+
+	/**
+	 * Creates a new {@link IncrementalReindenter}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param tabWidth
+	 *            The number of columns between two tab stops.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if
+	 *             the given tab width is not positive.
+	 */
+	public IncrementalReindenter(Indentation indentation, int tabWidth) throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (tabWidth < 1) {
+			throw new IllegalArgumentException("The given tab width is not positive");
+		}
+		this.indentation = indentation;
+		this.tabWidth = tabWidth;
+		String levelString = indentation.get(1);
+		this.levelWidth = columnOf(levelString, 0, levelString.length());
+	}
+
+	/**
+	 * Calculates the {@link TextEdit TextEdits} that are necessary to reindent
+	 * the lines of the given document that are affected by an edit of the
+	 * given range.
+	 * 
+	 * @param document
+	 *            The document, which already contains the edit.
+	 * @param start
+	 *            The start of the edited range, inclusive.
+	 * @param end
+	 *            The end of the edited range, exclusive.
+	 * @return The {@link TextEdit TextEdits}, ordered by their position.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given document is {@literal null}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given range is invalid.
+	 */
+	public List<TextEdit> reindent(CharSequence document, int start, int end) throws IllegalArgumentException,
+			IndexOutOfBoundsException {
+		if (null == document) {
+			throw new IllegalArgumentException("The given document is null");
+		}
+		int length = document.length();
+		if (start < 0 || start > end || end > length) {
+			throw new IndexOutOfBoundsException("The given range is invalid");
+		}
+		int firstLineStart = lineStartOf(document, start);
+		int depth = anchorDepth(document, firstLineStart);
+		List<TextEdit> edits = new ArrayList<TextEdit>();
+		int lineStart = firstLineStart;
+		while (true) {
+			int lineEnd = lineEndOf(document, lineStart);
+			int contentStart = contentStartOf(document, lineStart, lineEnd);
+			boolean edited = lineStart == firstLineStart || lineStart < end;
+			if (contentStart == lineEnd) {
+				if (edited && contentStart != lineStart) {
+					edits.add(new TextEdit(lineStart, contentStart, ""));
+				}
+			} else {
+				int level = Math.max(0, depth - (isClosing(document.charAt(contentStart)) ? 1 : 0));
+				if (!matches(document, lineStart, contentStart, level)) {
+					edits.add(new TextEdit(lineStart, contentStart, indentation.get(level)));
+				} else if (!edited) {
+					break;
+				}
+				depth = depthAfter(document, contentStart, lineEnd, depth);
+			}
+			if (lineEnd == length) {
+				break;
+			}
+			lineStart = nextLineStartOf(document, lineEnd);
+		}
+		return edits;
+	}
+
+	private int anchorDepth(CharSequence document, int firstLineStart) {
+		int lineStart = firstLineStart;
+		while (lineStart > 0) {
+			int lineEnd = previousLineEndOf(document, lineStart);
+			lineStart = lineStartOf(document, lineEnd);
+			int contentStart = contentStartOf(document, lineStart, lineEnd);
+			if (contentStart != lineEnd) {
+				int level = 0 == levelWidth ? 0 : columnOf(document, lineStart, contentStart) / levelWidth;
+				int depth = level + (isClosing(document.charAt(contentStart)) ? 1 : 0);
+				return depthAfter(document, contentStart, lineEnd, depth);
+			}
+		}
+		return 0;
+	}
+
+	private boolean matches(CharSequence document, int lineStart, int contentStart, int level) {
+		CharSequence indentationSequence = indentation.getCharSequence(level, false);
+		if (indentationSequence.length() != contentStart - lineStart) {
+			return false;
+		}
+		for (int i = lineStart; i < contentStart; i++) {
+			if (document.charAt(i) != indentationSequence.charAt(i - lineStart)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int columnOf(CharSequence sequence, int start, int end) {
+		int column = 0;
+		for (int i = start; i < end; i++) {
+			if ('\t' == sequence.charAt(i)) {
+				column += tabWidth - column % tabWidth;
+			} else {
+				column++;
+			}
+		}
+		return column;
+	}
+
+	private static int depthAfter(CharSequence document, int start, int end, int depth) {
+		char quote = 0;
+		for (int i = start; i < end; i++) {
+			char c = document.charAt(i);
+			if (0 != quote) {
+				if ('\\' == c) {
+					i++;
+				} else if (quote == c) {
+					quote = 0;
+				}
+			} else if ('"' == c || '\'' == c) {
+				quote = c;
+			} else if ('(' == c || '[' == c || '{' == c) {
+				depth++;
+			} else if (isClosing(c)) {
+				depth = Math.max(0, depth - 1);
+			}
+		}
+		return depth;
+	}
+
+	private static boolean isClosing(char c) {
+		return ')' == c || ']' == c || '}' == c;
+	}
+
+	private static boolean isLineBreak(char c) {
+		return '\n' == c || '\r' == c;
+	}
+
+	private static int lineStartOf(CharSequence document, int position) {
+		while (position > 0 && !isLineBreak(document.charAt(position - 1))) {
+			position--;
+		}
+		return position;
+	}
+
+	private static int lineEndOf(CharSequence document, int position) {
+		int length = document.length();
+		while (position < length && !isLineBreak(document.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	private static int nextLineStartOf(CharSequence document, int lineEnd) {
+		if ('\r' == document.charAt(lineEnd) && lineEnd + 1 < document.length()
+				&& '\n' == document.charAt(lineEnd + 1)) {
+			return lineEnd + 2;
+		}
+		return lineEnd + 1;
+	}
+
+	private static int previousLineEndOf(CharSequence document, int lineStart) {
+		if (lineStart > 1 && '\n' == document.charAt(lineStart - 1) && '\r' == document.charAt(lineStart - 2)) {
+			return lineStart - 2;
+		}
+		return lineStart - 1;
+	}
+
+	private static int contentStartOf(CharSequence document, int lineStart, int lineEnd) {
+		while (lineStart < lineEnd && (' ' == document.charAt(lineStart) || '\t' == document.charAt(lineStart))) {
+			lineStart++;
+		}
+		return lineStart;
+	}
+
+}
@@ -22,6 +22,9 @@
 package net.markenwerk.utils.text.indentation;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * An {@link Indentation} represents all strings necessary to perform consistent
@@ -32,6 +35,20 @@ import java.io.IOException;
  * visible} effect, in which case calling any other method of the
  * {@link Indentation} has no effect.
  * 
+ * <p>
+ * All methods that write bytes write the UTF-8 encoded indentation strings.
+ * For indentation strings that only consist of ASCII characters (e.g. any
+ * {@link Whitespace} or {@link LineBreak}), these bytes are identical to the
+ * bytes produced by every ASCII compatible charset.
+ * 
+ * <p>
+ * Version 2.0.0 added the methods {@link Indentation#getCharSequence(int)},
+ * {@link Indentation#getCharSequence(int, boolean)} and the
+ * {@code writeTo(...)} methods for {@link OutputStream OutputStreams},
+ * {@link ByteBuffer ByteBuffers} and byte arrays to this interface. Custom
+ * implementations should extend {@link AbstractIndentation}, which implements
+ * all of these methods.
+ * 
  * @author Torsten Krause (tk at markenwerk dot net)
  * @since 1.0.0
  */
@@ -111,6 +128,52 @@ public interface Indentation {
 	 */
 	public String get(int level, boolean includeLineBreak) throws IllegalArgumentException;
 
+	/**
+	 * Returns a {@link CharSequence} with the same content as the
+	 * {@link Indentation#get(int) string} that needs to be appended at the
+	 * beginning of a line, with the result that the the line is indented by the
+	 * given level.
+	 * 
+	 * <p>
+	 * Other than {@link Indentation#get(int)}, this method may return a view on
+	 * a shared buffer, that doesn't need to be materialized. The result is
+	 * immutable and never {@literal null}, even if this {@link Indentation} is
+	 * not {@link Indentation#isVisible() visible}.
+	 * 
+	 * @param level
+	 *            The indentation level.
+	 * @return The indentation character sequence.
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 * @since 2.0.0
+	 */
+	public CharSequence getCharSequence(int level) throws IllegalArgumentException;
+
+	/**
+	 * Returns a {@link CharSequence} with the same content as the
+	 * {@link Indentation#get(int, boolean) string} that needs to be appended
+	 * at the beginning of a line, with the result that the the line is
+	 * indented by the given level or the string that needs to be appended at
+	 * the end of a line, with the result that the next line is indented by the
+	 * given level, including the necessary line break characters.
+	 * 
+	 * <p>
+	 * Other than {@link Indentation#get(int, boolean)}, this method may return
+	 * a view on a shared buffer, that doesn't need to be materialized. The
+	 * result is immutable and never {@literal null}, even if this
+	 * {@link Indentation} is not {@link Indentation#isVisible() visible}.
+	 * 
+	 * @param level
+	 *            The indentation level.
+	 * @param includeLineBreak
+	 *            Whether to include the line break characters.
+	 * @return The indentation character sequence.
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 * @since 2.0.0
+	 */
+	public CharSequence getCharSequence(int level, boolean includeLineBreak) throws IllegalArgumentException;
+
 	/**
 	 * Appends the string that needs to be appended at the beginning of a line,
 	 * with the result that the the line is indented by the given level, to the
@@ -156,4 +219,172 @@ public interface Indentation {
 	public void appendTo(Appendable appendable, int level, boolean includeLineBreak) throws IllegalArgumentException,
 			IOException;
 
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level,
+	 * to the given {@link OutputStream}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param level
+	 *            The indentation level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given level is negative.
+	 * @throws IOException
+	 *             If writing to the given {@link OutputStream} failed.
+	 * @since 2.0.0
+	 */
+	public void writeTo(OutputStream outputStream, int level) throws IllegalArgumentException, IOException;
+
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level or
+	 * the encoded string that needs to be appended at the end of a line, with
+	 * the result that the next line is indented by the given level, including
+	 * the necessary line break characters, to the given {@link OutputStream}.
+	 * 
+	 * <p>
+	 * The line break characters are omitted, if this {@link Indentation} is not
+	 * {@link Indentation#isVisible() visible}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to be used.
+	 * @param level
+	 *            The indentation level.
+	 * @param includeLineBreak
+	 *            Whether to include the line break characters.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link OutputStream} is {@literal null} or if
+	 *             the given level is negative.
+	 * @throws IOException
+	 *             If writing to the given {@link OutputStream} failed.
+	 * @since 2.0.0
+	 */
+	public void writeTo(OutputStream outputStream, int level, boolean includeLineBreak)
+			throws IllegalArgumentException, IOException;
+
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level,
+	 * to the given {@link ByteBuffer}.
+	 * 
+	 * <p>
+	 * Nothing is written, if the given {@link ByteBuffer} hasn't enough
+	 * remaining space.
+	 * 
+	 * @param byteBuffer
+	 *            The {@link ByteBuffer} to be used.
+	 * @param level
+	 *            The indentation level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link ByteBuffer} is {@literal null} or if the
+	 *             given level is negative.
+	 * @throws BufferOverflowException
+	 *             If the given {@link ByteBuffer} hasn't enough remaining
+	 *             space.
+	 * @since 2.0.0
+	 */
+	public void writeTo(ByteBuffer byteBuffer, int level) throws IllegalArgumentException, BufferOverflowException;
+
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level or
+	 * the encoded string that needs to be appended at the end of a line, with
+	 * the result that the next line is indented by the given level, including
+	 * the necessary line break characters, to the given {@link ByteBuffer}.
+	 * 
+	 * <p>
+	 * The line break characters are omitted, if this {@link Indentation} is not
+	 * {@link Indentation#isVisible() visible}.
+	 * 
+	 * <p>
+	 * Nothing is written, if the given {@link ByteBuffer} hasn't enough
+	 * remaining space.
+	 * 
+	 * @param byteBuffer
+	 *            The {@link ByteBuffer} to be used.
+	 * @param level
+	 *            The indentation level.
+	 * @param includeLineBreak
+	 *            Whether to include the line break characters.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link ByteBuffer} is {@literal null} or if the
+	 *             given level is negative.
+	 * @throws BufferOverflowException
+	 *             If the given {@link ByteBuffer} hasn't enough remaining
+	 *             space.
+	 * @since 2.0.0
+	 */
+	public void writeTo(ByteBuffer byteBuffer, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			BufferOverflowException;
+
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level,
+	 * into the given byte array, starting at the given offset.
+	 * 
+	 * <p>
+	 * Nothing is written, if the given byte array hasn't enough space after the
+	 * given offset.
+	 * 
+	 * @param bytes
+	 *            The byte array to be used.
+	 * @param offset
+	 *            The offset to start writing at.
+	 * @param level
+	 *            The indentation level.
+	 * @return The number of bytes written.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given byte array is {@literal null} or if the given
+	 *             level is negative.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset is negative or if the given byte array
+	 *             hasn't enough space after the given offset.
+	 * @since 2.0.0
+	 */
+	public int writeTo(byte[] bytes, int offset, int level) throws IllegalArgumentException, IndexOutOfBoundsException;
+
+	/**
+	 * Writes the encoded string that needs to be appended at the beginning of a
+	 * line, with the result that the the line is indented by the given level or
+	 * the encoded string that needs to be appended at the end of a line, with
+	 * the result that the next line is indented by the given level, including
+	 * the necessary line break characters, into the given byte array, starting
+	 * at the given offset.
+	 * 
+	 * <p>
+	 * The line break characters are omitted, if this {@link Indentation} is not
+	 * {@link Indentation#isVisible() visible}.
+	 * 
+	 * <p>
+	 * Nothing is written, if the given byte array hasn't enough space after the
+	 * given offset.
+	 * 
+	 * @param bytes
+	 *            The byte array to be used.
+	 * @param offset
+	 *            The offset to start writing at.
+	 * @param level
+	 *            The indentation level.
+	 * @param includeLineBreak
+	 *            Whether to include the line break characters.
+	 * @return The number of bytes written.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given byte array is {@literal null} or if the given
+	 *             level is negative.
+	 * @throws IndexOutOfBoundsException
+	 *             If the given offset is negative or if the given byte array
+	 *             hasn't enough space after the given offset.
+	 * @since 2.0.0
+	 */
+	public int writeTo(byte[] bytes, int offset, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			IndexOutOfBoundsException;
+
 }
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * An {@link IndentationBuffer} is a lazily grown character array that contains
+ * a prefix, followed by repetitions of a unit string.
+ * 
+ * <p>
+ * The prefix must end with the line break string of every {@link Indentation}
+ * that uses the {@link IndentationBuffer}, such that every indentation string,
+ * with or without the line break, is a contiguous range of the character
+ * array, as long as the range doesn't exceed the size of the character array.
+ * 
+ * <p>
+ * The character array never contains more repetitions of the unit string than
+ * the given maximum number of units. Longer indentation strings are written in
+ * multiple chunks.
+ * 
+ * <p>
+ * An {@link IndentationBuffer} also holds a lazily grown byte array with the
+ * UTF-8 encoded content of the character array. Since the whitespace and line
+ * break characters are all ASCII characters, this byte array is valid for all
+ * ASCII compatible charsets.
+ * 
+ * <p>
+ * For every {@link Whitespace} character, there is a process-wide shared
+ * {@link IndentationBuffer} with prefix {@code "\r\n"} and the
+ * {@link Whitespace} character as unit string. Such a buffer can be used by
+ * every {@link Indentation} that repeats the {@link Whitespace} character and
+ * whose line break string is a suffix of the prefix.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+final class IndentationBuffer {
+
+	/**
+	 * The {@link Charset} used to encode the content of the byte array.
+	 */
+	public static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static final String SHARED_PREFIX = "\r\n";
+
+	private static final int SHARED_MAXIMUM_UNITS = 4096;
+
+	private static final Map<Whitespace, IndentationBuffer> SHARED_BUFFERS = createSharedBuffers();
+
+	private final String prefix;
+
+	private final String unit;
+
+	private final byte[] prefixBytes;
+
+	private final byte[] unitBytes;
+
+	private final int maximumUnits;
+
+	private volatile char[] chars;
+
+	private volatile byte[] bytes;
+
+	/**
+	 * Creates a new {@link IndentationBuffer}.
+	 * 
+	 * @param prefix
+	 *            The prefix to be used.
+	 * @param unit
+	 *            The unit string to be repeated.
+	 * @param maximumUnits
+	 *            The maximum number of units to be held.
+	 */
+	public IndentationBuffer(String prefix, String unit, int maximumUnits) {
+		this.prefix = prefix;
+		this.unit = unit;
+		this.maximumUnits = Math.max(1, maximumUnits);
+		this.prefixBytes = prefix.getBytes(CHARSET);
+		this.unitBytes = unit.getBytes(CHARSET);
+		this.chars = prefix.toCharArray();
+		this.bytes = prefixBytes;
+	}
+
+	private static Map<Whitespace, IndentationBuffer> createSharedBuffers() {
+		Map<Whitespace, IndentationBuffer> buffers = new EnumMap<Whitespace, IndentationBuffer>(Whitespace.class);
+		for (Whitespace whitespace : Whitespace.values()) {
+			String unit = whitespace.getWhitespaceString();
+			buffers.put(whitespace, new IndentationBuffer(SHARED_PREFIX, unit, SHARED_MAXIMUM_UNITS));
+		}
+		return buffers;
+	}
+
+	/**
+	 * Returns the process-wide shared {@link IndentationBuffer} for the given
+	 * {@link Whitespace} character, if it can be used with the given
+	 * {@link LineBreak}.
+	 * 
+	 * @param whitespace
+	 *            The {@link Whitespace} character to be repeated.
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * @return The shared {@link IndentationBuffer} or {@literal null}, if the
+	 *         given {@link Whitespace} character or the given {@link LineBreak}
+	 *         is {@literal null} or if the line break string of the given
+	 *         {@link LineBreak} is not a suffix of the shared prefix.
+	 */
+	public static IndentationBuffer getShared(Whitespace whitespace, LineBreak lineBreak) {
+		if (null == whitespace || null == lineBreak || !SHARED_PREFIX.endsWith(lineBreak.getLineBreakString())) {
+			return null;
+		}
+		return SHARED_BUFFERS.get(whitespace);
+	}
+
+	/**
+	 * Copies the characters in the given range of the given
+	 * {@link CharSequence} into the given character array. Characters are
+	 * copied in bulk, if the given {@link CharSequence} is a {@link String}, a
+	 * {@link StringBuilder} or a {@link CharBuffer} that is backed by an
+	 * accessible array.
+	 * 
+	 * @param sequence
+	 *            The {@link CharSequence} to copy from.
+	 * @param start
+	 *            The index of the first character to be copied.
+	 * @param end
+	 *            The index after the last character to be copied.
+	 * @param target
+	 *            The character array to copy into.
+	 * @param offset
+	 *            The index in the character array to copy the first character
+	 *            to.
+	 */
+	public static void getChars(CharSequence sequence, int start, int end, char[] target, int offset) {
+		if (sequence instanceof String) {
+			((String) sequence).getChars(start, end, target, offset);
+		} else if (sequence instanceof StringBuilder) {
+			((StringBuilder) sequence).getChars(start, end, target, offset);
+		} else if (sequence instanceof CharBuffer && ((CharBuffer) sequence).hasArray()) {
+			CharBuffer buffer = (CharBuffer) sequence;
+			System.arraycopy(buffer.array(), buffer.arrayOffset() + buffer.position() + start, target, offset, end
+					- start);
+		} else {
+			for (int i = start; i < end; i++) {
+				target[offset++] = sequence.charAt(i);
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of the prefix.
+	 * 
+	 * @return The length of the prefix.
+	 */
+	public int getPrefixLength() {
+		return prefix.length();
+	}
+
+	/**
+	 * Returns the length of the encoded prefix.
+	 * 
+	 * @return The length of the encoded prefix.
+	 */
+	public int getPrefixByteLength() {
+		return prefixBytes.length;
+	}
+
+	/**
+	 * Returns a character array that contains the prefix, followed by as much
+	 * repeated units as necessary to hold the given length, or the maximum
+	 * number of units.
+	 * 
+	 * @param length
+	 *            The length, in characters, to be held after the prefix.
+	 * @return The character array.
+	 */
+	public char[] getChars(int length) {
+		char[] chars = this.chars;
+		int repeatedLength = chars.length - prefix.length();
+		if (length <= repeatedLength || repeatedLength >= maximumUnits * unit.length()) {
+			return chars;
+		}
+		return growChars(length);
+	}
+
+	private synchronized char[] growChars(int length) {
+		char[] chars = this.chars;
+		int unitLength = unit.length();
+		int units = (chars.length - prefix.length()) / unitLength;
+		if (length <= units * unitLength || units >= maximumUnits) {
+			return chars;
+		}
+		int grownUnits = Math.min(maximumUnits, Math.max((length + unitLength - 1) / unitLength, units * 2));
+		char[] grownChars = new char[prefix.length() + grownUnits * unitLength];
+		System.arraycopy(chars, 0, grownChars, 0, chars.length);
+		for (int offset = chars.length; offset < grownChars.length; offset += unitLength) {
+			unit.getChars(0, unitLength, grownChars, offset);
+		}
+		this.chars = grownChars;
+		return grownChars;
+	}
+
+	/**
+	 * Writes the given number of characters, preceded by the given number of
+	 * characters from the end of the prefix, to the given {@link Writer}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * @param prefixLength
+	 *            The number of characters to be written from the end of the
+	 *            prefix.
+	 * @param length
+	 *            The number of characters to be written after the prefix. Must
+	 *            be a multiple of the unit length.
+	 * @throws IOException
+	 *             If writing to the given {@link Writer} failed.
+	 */
+	public void writeTo(Writer writer, int prefixLength, int length) throws IOException {
+		char[] chars = getChars(length);
+		int offset = prefix.length() - prefixLength;
+		int remaining = prefixLength + length;
+		while (remaining > 0) {
+			int chunkLength = Math.min(remaining, chars.length - offset);
+			writer.write(chars, offset, chunkLength);
+			remaining -= chunkLength;
+			offset = prefix.length();
+		}
+	}
+
+	/**
+	 * Returns a {@link CharSequence} view on the given number of characters,
+	 * preceded by the given number of characters from the end of the prefix.
+	 * 
+	 * @param prefixLength
+	 *            The number of characters to be viewed from the end of the
+	 *            prefix.
+	 * @param length
+	 *            The number of characters to be viewed after the prefix. Must
+	 *            be a multiple of the unit length.
+	 * @return The {@link CharSequence} view.
+	 */
+	public CharSequence getSequence(int prefixLength, int length) {
+		char[] chars = getChars(length);
+		return new IndentationSequence(chars, prefix.length(), prefix.length() - prefixLength, prefixLength + length);
+	}
+
+	/**
+	 * Returns a byte array that contains the encoded prefix, followed by as
+	 * much encoded repeated units as necessary to hold the given length, or the
+	 * maximum number of units.
+	 * 
+	 * @param length
+	 *            The length, in bytes, to be held after the encoded prefix.
+	 * @return The byte array.
+	 */
+	public byte[] getBytes(int length) {
+		byte[] bytes = this.bytes;
+		int repeatedLength = bytes.length - prefixBytes.length;
+		if (length <= repeatedLength || repeatedLength >= maximumUnits * unitBytes.length) {
+			return bytes;
+		}
+		return growBytes(length);
+	}
+
+	private synchronized byte[] growBytes(int length) {
+		byte[] bytes = this.bytes;
+		int unitLength = unitBytes.length;
+		int units = (bytes.length - prefixBytes.length) / unitLength;
+		if (length <= units * unitLength || units >= maximumUnits) {
+			return bytes;
+		}
+		int grownUnits = Math.min(maximumUnits, Math.max((length + unitLength - 1) / unitLength, units * 2));
+		byte[] grownBytes = new byte[prefixBytes.length + grownUnits * unitLength];
+		System.arraycopy(bytes, 0, grownBytes, 0, bytes.length);
+		for (int offset = bytes.length; offset < grownBytes.length; offset += unitLength) {
+			System.arraycopy(unitBytes, 0, grownBytes, offset, unitLength);
+		}
+		this.bytes = grownBytes;
+		return grownBytes;
+	}
+
+	/**
+	 * Writes the given number of bytes, preceded by the given number of bytes
+	 * from the end of the encoded prefix, to the given {@link OutputStream}.
+	 * 
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @param prefixLength
+	 *            The number of bytes to be written from the end of the encoded
+	 *            prefix.
+	 * @param length
+	 *            The number of bytes to be written after the encoded prefix.
+	 *            Must be a multiple of the encoded unit length.
+	 * @throws IOException
+	 *             If writing to the given {@link OutputStream} failed.
+	 */
+	public void writeTo(OutputStream outputStream, int prefixLength, int length) throws IOException {
+		byte[] bytes = getBytes(length);
+		int offset = prefixBytes.length - prefixLength;
+		int remaining = prefixLength + length;
+		while (remaining > 0) {
+			int chunkLength = Math.min(remaining, bytes.length - offset);
+			outputStream.write(bytes, offset, chunkLength);
+			remaining -= chunkLength;
+			offset = prefixBytes.length;
+		}
+	}
+
+	/**
+	 * Writes the given number of bytes, preceded by the given number of bytes
+	 * from the end of the encoded prefix, to the given {@link ByteBuffer}.
+	 * 
+	 * <p>
+	 * The caller is responsible to check, that the given {@link ByteBuffer} has
+	 * enough remaining space.
+	 * 
+	 * @param byteBuffer
+	 *            The {@link ByteBuffer} to write to.
+	 * @param prefixLength
+	 *            The number of bytes to be written from the end of the encoded
+	 *            prefix.
+	 * @param length
+	 *            The number of bytes to be written after the encoded prefix.
+	 *            Must be a multiple of the encoded unit length.
+	 */
+	public void writeTo(ByteBuffer byteBuffer, int prefixLength, int length) {
+		byte[] bytes = getBytes(length);
+		int offset = prefixBytes.length - prefixLength;
+		int remaining = prefixLength + length;
+		while (remaining > 0) {
+			int chunkLength = Math.min(remaining, bytes.length - offset);
+			byteBuffer.put(bytes, offset, chunkLength);
+			remaining -= chunkLength;
+			offset = prefixBytes.length;
+		}
+	}
+
+	/**
+	 * Writes the given number of bytes, preceded by the given number of bytes
+	 * from the end of the encoded prefix, into the given byte array.
+	 * 
+	 * <p>
+	 * The caller is responsible to check, that the given byte array has enough
+	 * space after the given position.
+	 * 
+	 * @param target
+	 *            The byte array to write into.
+	 * @param position
+	 *            The position to start writing at.
+	 * @param prefixLength
+	 *            The number of bytes to be written from the end of the encoded
+	 *            prefix.
+	 * @param length
+	 *            The number of bytes to be written after the encoded prefix.
+	 *            Must be a multiple of the encoded unit length.
+	 */
+	public void writeTo(byte[] target, int position, int prefixLength, int length) {
+		byte[] bytes = getBytes(length);
+		int offset = prefixBytes.length - prefixLength;
+		int remaining = prefixLength + length;
+		while (remaining > 0) {
+			int chunkLength = Math.min(remaining, bytes.length - offset);
+			System.arraycopy(bytes, offset, target, position, chunkLength);
+			position += chunkLength;
+			remaining -= chunkLength;
+			offset = prefixBytes.length;
+		}
+	}
+
+}
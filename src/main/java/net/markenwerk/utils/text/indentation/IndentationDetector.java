@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link IndentationDetector} infers the {@link Whitespace} character, the
+ * indentation length and the {@link LineBreak} used in existing text.
+ * 
+ * <p>
+ * The text is scanned once, with constant memory. Only the leading whitespace
+ * of every line and the line breaks are inspected:
+ * <ul>
+ * <li>Lines that are indented with tabs only and lines that are indented with
+ * spaces only are counted to determine the {@link Whitespace} character.</li>
+ * <li>The differences between the number of leading spaces of consecutive
+ * non-blank lines, that are not indented with tabs, are counted to determine
+ * the indentation length. The most frequent difference is used.</li>
+ * <li>Line feeds that are preceded by a carriage return and line feeds that
+ * aren't are counted to determine the {@link LineBreak}.</li>
+ * </ul>
+ * Blank lines are ignored. If no indented lines are found, a single tab is
+ * assumed. If no line breaks are found, the {@link LineBreak#SYSTEM}
+ * {@link LineBreak} is assumed.
+ * 
+ * <p>
+ * An {@link IndentationDetector} can be limited to a sample of the text, in
+ * which case only the given number of characters or bytes is inspected.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentationDetector {
+
+	/**
+	 * The largest indentation length, that can be detected.
+	 */
+	public static final int MAXIMUM_LENGTH = 8;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final long sampleSize;
+
+	/**
+	 * Creates a new {@link IndentationDetector} that inspects the whole text.
+	 */
+	public IndentationDetector() {
+		this(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new {@link IndentationDetector}.
+	 * 
+	 * @param sampleSize
+	 *            The maximum number of characters or bytes to be inspected.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given sample size is not positive.
+	 */
+	public IndentationDetector(long sampleSize) throws IllegalArgumentException {
+		if (sampleSize < 1) {
+			throw new IllegalArgumentException("The given sample size is not positive");
+		}
+		this.sampleSize = sampleSize;
+	}
+
+	/**
+	 * Detects the indentation used in the given {@link CharSequence}.
+	 * 
+	 * @param input
+	 *            The {@link CharSequence} to be inspected.
+	 * @return The {@link DetectedIndentation}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link CharSequence} is {@literal null}.
+	 */
+	public DetectedIndentation detect(CharSequence input) throws IllegalArgumentException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		Detection detection = new Detection();
+		int length = (int) Math.min(input.length(), sampleSize);
+		char[] buffer = new char[Math.min(length, BUFFER_SIZE)];
+		for (int position = 0; position < length; position += buffer.length) {
+			int chunkLength = Math.min(buffer.length, length - position);
+			IndentationBuffer.getChars(input, position, position + chunkLength, buffer, 0);
+			detection.process(buffer, chunkLength);
+		}
+		return detection.getResult();
+	}
+
+	/**
+	 * Detects the indentation used in the characters read from the given
+	 * {@link Reader}. The given {@link Reader} is neither closed nor read
+	 * further than the sample size.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to be read from.
+	 * @return The {@link DetectedIndentation}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reader} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link Reader} failed.
+	 */
+	public DetectedIndentation detect(Reader reader) throws IllegalArgumentException, IOException {
+		if (null == reader) {
+			throw new IllegalArgumentException("The given reader is null");
+		}
+		Detection detection = new Detection();
+		char[] buffer = new char[BUFFER_SIZE];
+		long remaining = sampleSize;
+		while (remaining > 0) {
+			int length = reader.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (-1 == length) {
+				break;
+			}
+			detection.process(buffer, length);
+			remaining -= length;
+		}
+		return detection.getResult();
+	}
+
+	/**
+	 * Detects the indentation used in the remaining bytes of the given
+	 * {@link ByteBuffer}. The position of the given {@link ByteBuffer} is not
+	 * modified.
+	 * 
+	 * <p>
+	 * The bytes must be encoded with a charset that is compatible with
+	 * {@code US-ASCII}, like {@code UTF-8} or {@code ISO-8859-1}.
+	 * 
+	 * @param input
+	 *            The {@link ByteBuffer} to be inspected.
+	 * @return The {@link DetectedIndentation}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link ByteBuffer} is {@literal null}.
+	 */
+	public DetectedIndentation detect(ByteBuffer input) throws IllegalArgumentException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		Detection detection = new Detection();
+		ByteBuffer source = input.duplicate();
+		int length = (int) Math.min(source.remaining(), sampleSize);
+		byte[] bytes = new byte[Math.min(length, BUFFER_SIZE)];
+		char[] buffer = new char[bytes.length];
+		for (int position = 0; position < length; position += bytes.length) {
+			int chunkLength = Math.min(bytes.length, length - position);
+			source.get(bytes, 0, chunkLength);
+			for (int i = 0; i < chunkLength; i++) {
+				buffer[i] = (char) (bytes[i] & 0xFF);
+			}
+			detection.process(buffer, chunkLength);
+		}
+		return detection.getResult();
+	}
+
+	private static final class Detection {
+
+		private final long[] differences = new long[MAXIMUM_LENGTH + 1];
+
+		private boolean leading = true;
+
+		private boolean carriageReturn;
+
+		private int spaces;
+
+		private int tabs;
+
+		private int previousSpaces;
+
+		private long spaceLines;
+
+		private long tabLines;
+
+		private long mixedLines;
+
+		private long unixLineBreaks;
+
+		private long windowsLineBreaks;
+
+		public void process(char[] buffer, int length) {
+			boolean leading = this.leading;
+			boolean carriageReturn = this.carriageReturn;
+			int spaces = this.spaces;
+			int tabs = this.tabs;
+			for (int i = 0; i < length; i++) {
+				char c = buffer[i];
+				if ('\n' == c) {
+					if (carriageReturn) {
+						windowsLineBreaks++;
+					} else {
+						unixLineBreaks++;
+					}
+					leading = true;
+					spaces = 0;
+					tabs = 0;
+				} else if (leading) {
+					if (' ' == c) {
+						spaces++;
+					} else if ('\t' == c) {
+						tabs++;
+					} else if ('\r' != c) {
+						leading = false;
+						processLine(spaces, tabs);
+					}
+				}
+				carriageReturn = '\r' == c;
+			}
+			this.leading = leading;
+			this.carriageReturn = carriageReturn;
+			this.spaces = spaces;
+			this.tabs = tabs;
+		}
+
+		private void processLine(int spaces, int tabs) {
+			if (0 == tabs) {
+				if (0 != spaces) {
+					spaceLines++;
+				}
+				int difference = Math.abs(spaces - previousSpaces);
+				if (0 != difference && difference <= MAXIMUM_LENGTH) {
+					differences[difference]++;
+				}
+				previousSpaces = spaces;
+			} else if (0 == spaces) {
+				tabLines++;
+			} else {
+				mixedLines++;
+			}
+		}
+
+		public DetectedIndentation getResult() {
+			long indentedLines = spaceLines + tabLines + mixedLines;
+			Whitespace whitespace = spaceLines > tabLines ? Whitespace.SPACE : Whitespace.TAB;
+			double whitespaceConfidence = 0;
+			if (0 != indentedLines) {
+				whitespaceConfidence = (double) Math.max(spaceLines, tabLines) / indentedLines;
+			}
+			int length = 1;
+			double lengthConfidence = whitespaceConfidence;
+			if (Whitespace.SPACE == whitespace) {
+				long total = 0;
+				for (int difference = 1; difference <= MAXIMUM_LENGTH; difference++) {
+					total += differences[difference];
+					if (differences[difference] > differences[length]) {
+						length = difference;
+					}
+				}
+				lengthConfidence = 0 == total ? 0 : (double) differences[length] / total;
+			}
+			long lineBreaks = unixLineBreaks + windowsLineBreaks;
+			LineBreak lineBreak = LineBreak.SYSTEM;
+			double lineBreakConfidence = 0;
+			if (0 != lineBreaks) {
+				lineBreak = windowsLineBreaks > unixLineBreaks ? LineBreak.WINDOWS : LineBreak.UNIX;
+				lineBreakConfidence = (double) Math.max(unixLineBreaks, windowsLineBreaks) / lineBreaks;
+			}
+			return new DetectedIndentation(whitespace, length, lineBreak, whitespaceConfidence, lengthConfidence,
+					lineBreakConfidence);
+		}
+
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * {@link IndentationFlow} holds the interfaces that are used to establish
+ * flow-controlled components, in which a {@link IndentationFlow.Publisher}
+ * produces items consumed by one or more {@link IndentationFlow.Subscriber
+ * Subscribers}, each managed by a {@link IndentationFlow.Subscription}.
+ * 
+ * <p>
+ * The interfaces have the same shape and the same contract as the interfaces
+ * of {@code java.util.concurrent.Flow}, which are not available on all
+ * supported platforms. Adapting them requires a small bridge for each
+ * interface, that forwards items and signals in one direction and demand and
+ * cancellation in the other direction.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentationFlow {
+
+	private IndentationFlow() {
+	}
+
+	/**
+	 * A {@link Publisher} produces items received by {@link Subscriber
+	 * Subscribers}.
+	 * 
+	 * @param <T>
+	 *            The type of the published items.
+	 * 
+	 * @author Torsten Krause (tk at markenwerk dot net)
+	 * @since 2.0.0
+	 */
+	public static interface Publisher<T> {
+
+		/**
+		 * Adds the given {@link Subscriber}.
+		 * 
+		 * @param subscriber
+		 *            The {@link Subscriber} to be added.
+		 */
+		public void subscribe(Subscriber<? super T> subscriber);
+
+	}
+
+	/**
+	 * A {@link Subscriber} receives items from a {@link Publisher}. Methods
+	 * are invoked in strict sequential order for each {@link Subscription}.
+	 * 
+	 * @param <T>
+	 *            The type of the received items.
+	 * 
+	 * @author Torsten Krause (tk at markenwerk dot net)
+	 * @since 2.0.0
+	 */
+	public static interface Subscriber<T> {
+
+		/**
+		 * Invoked prior to invoking any other method of this
+		 * {@link Subscriber} for the given {@link Subscription}.
+		 * 
+		 * @param subscription
+		 *            The {@link Subscription}.
+		 */
+		public void onSubscribe(Subscription subscription);
+
+		/**
+		 * Invoked with the next item of the {@link Subscription}.
+		 * 
+		 * @param item
+		 *            The item.
+		 */
+		public void onNext(T item);
+
+		/**
+		 * Invoked upon an unrecoverable error of the {@link Publisher} or the
+		 * {@link Subscription}, after which no other methods are invoked.
+		 * 
+		 * @param throwable
+		 *            The error.
+		 */
+		public void onError(Throwable throwable);
+
+		/**
+		 * Invoked when it is known that no additional invocations of
+		 * {@link Subscriber#onNext(Object)} will occur.
+		 */
+		public void onComplete();
+
+	}
+
+	/**
+	 * A {@link Subscription} links a {@link Publisher} and a
+	 * {@link Subscriber}.
+	 * 
+	 * @author Torsten Krause (tk at markenwerk dot net)
+	 * @since 2.0.0
+	 */
+	public static interface Subscription {
+
+		/**
+		 * Adds the given number of items to the unfulfilled demand of this
+		 * {@link Subscription}.
+		 * 
+		 * @param n
+		 *            The number of items, which should be positive.
+		 */
+		public void request(long n);
+
+		/**
+		 * Causes the {@link Subscriber} to (eventually) stop receiving items.
+		 */
+		public void cancel();
+
+	}
+
+	/**
+	 * A {@link Processor} is a component that acts as both, a
+	 * {@link Subscriber} and a {@link Publisher}.
+	 * 
+	 * @param <T>
+	 *            The type of the received items.
+	 * @param <R>
+	 *            The type of the published items.
+	 * 
+	 * @author Torsten Krause (tk at markenwerk dot net)
+	 * @since 2.0.0
+	 */
+	public static interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * An {@link IndentationSequence} is a read-only {@link CharSequence} view on
+ * the character array of an {@link IndentationBuffer}.
+ * 
+ * <p>
+ * The character array is treated as if the repeated units after the prefix
+ * would continue indefinitely, such that an {@link IndentationSequence} can
+ * represent indentation strings of any length without copying any characters.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+final class IndentationSequence implements CharSequence {
+
+	private final char[] chars;
+
+	private final int prefixLength;
+
+	private final int start;
+
+	private final int length;
+
+	/**
+	 * Creates a new {@link IndentationSequence}.
+	 * 
+	 * @param chars
+	 *            The character array to be used.
+	 * @param prefixLength
+	 *            The length of the prefix in the given character array.
+	 * @param start
+	 *            The start of this {@link IndentationSequence}.
+	 * @param length
+	 *            The length of this {@link IndentationSequence}.
+	 */
+	public IndentationSequence(char[] chars, int prefixLength, int start, int length) {
+		this.chars = chars;
+		this.prefixLength = prefixLength;
+		this.start = start;
+		this.length = length;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("The given index is out of bounds");
+		}
+		int position = start + index;
+		if (position < chars.length) {
+			return chars[position];
+		}
+		return chars[prefixLength + (position - prefixLength) % (chars.length - prefixLength)];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("The given range is out of bounds");
+		}
+		return new IndentationSequence(chars, prefixLength, this.start + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length);
+		int offset = start;
+		int remaining = length;
+		while (remaining > 0) {
+			if (offset >= chars.length) {
+				offset = prefixLength + (offset - prefixLength) % (chars.length - prefixLength);
+			}
+			int chunkLength = Math.min(remaining, chars.length - offset);
+			builder.append(chars, offset, chunkLength);
+			offset += chunkLength;
+			remaining -= chunkLength;
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * An {@link IndentationStatistics} is an immutable snapshot of the usage
+ * statistics recorded by a {@link MeteredIndentation}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentationStatistics {
+
+	private final long getCalls;
+
+	private final long getCharSequenceCalls;
+
+	private final long appendToCalls;
+
+	private final long writeToCalls;
+
+	private final long characters;
+
+	private final long bytes;
+
+	private final long[] levelCounts;
+
+	private final long sampledCalls;
+
+	private final long sampledNanos;
+
+	private final long maximumSampledNanos;
+
+	/**
+	 * Creates a new {@link IndentationStatistics}.
+	 * 
+	 * @param getCalls
+	 *            The number of calls to {@code get}.
+	 * @param getCharSequenceCalls
+	 *            The number of calls to {@code getCharSequence}.
+	 * @param appendToCalls
+	 *            The number of calls to {@code appendTo}.
+	 * @param writeToCalls
+	 *            The number of calls to {@code writeTo}.
+	 * @param characters
+	 *            The number of characters emitted.
+	 * @param bytes
+	 *            The number of bytes emitted.
+	 * @param levelCounts
+	 *            The number of calls per level, where the last entry counts
+	 *            all calls with higher levels.
+	 * @param sampledCalls
+	 *            The number of calls, whose latency has been sampled.
+	 * @param sampledNanos
+	 *            The total latency of all sampled calls, in nanoseconds.
+	 * @param maximumSampledNanos
+	 *            The maximum latency of all sampled calls, in nanoseconds.
+	 */
+	public IndentationStatistics(long getCalls, long getCharSequenceCalls, long appendToCalls, long writeToCalls,
+			long characters, long bytes, long[] levelCounts, long sampledCalls, long sampledNanos,
+			long maximumSampledNanos) {
+		this.getCalls = getCalls;
+		this.getCharSequenceCalls = getCharSequenceCalls;
+		this.appendToCalls = appendToCalls;
+		this.writeToCalls = writeToCalls;
+		this.characters = characters;
+		this.bytes = bytes;
+		this.levelCounts = levelCounts.clone();
+		this.sampledCalls = sampledCalls;
+		this.sampledNanos = sampledNanos;
+		this.maximumSampledNanos = maximumSampledNanos;
+	}
+
+	/**
+	 * Returns the number of calls to {@link Indentation#get(int, boolean)
+	 * get}.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getGetCalls() {
+		return getCalls;
+	}
+
+	/**
+	 * Returns the number of calls to
+	 * {@link Indentation#getCharSequence(int, boolean) getCharSequence}.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getGetCharSequenceCalls() {
+		return getCharSequenceCalls;
+	}
+
+	/**
+	 * Returns the number of calls to
+	 * {@link Indentation#appendTo(Appendable, int, boolean) appendTo}.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getAppendToCalls() {
+		return appendToCalls;
+	}
+
+	/**
+	 * Returns the number of calls to any of the {@code writeTo} methods.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getWriteToCalls() {
+		return writeToCalls;
+	}
+
+	/**
+	 * Returns the total number of calls.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getCalls() {
+		return getCalls + getCharSequenceCalls + appendToCalls + writeToCalls;
+	}
+
+	/**
+	 * Returns the number of characters of all indentation strings that have
+	 * been emitted by {@code get}, {@code getCharSequence} or {@code appendTo},
+	 * including the line break characters.
+	 * 
+	 * @return The number of characters.
+	 */
+	public long getCharacters() {
+		return characters;
+	}
+
+	/**
+	 * Returns the number of bytes of all indentation strings that have been
+	 * written by any of the {@code writeTo} methods, including the line break
+	 * bytes.
+	 * 
+	 * @return The number of bytes.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of levels, for which calls have been counted
+	 * individually.
+	 * 
+	 * @return The number of levels.
+	 */
+	public int getLevels() {
+		return levelCounts.length - 1;
+	}
+
+	/**
+	 * Returns the number of calls with the given level. If the given level is
+	 * not less than the {@link IndentationStatistics#getLevels() number of
+	 * levels}, the number of calls with all such levels is returned.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @return The number of calls.
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 */
+	public long getLevelCount(int level) throws IllegalArgumentException {
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+		return levelCounts[Math.min(level, levelCounts.length - 1)];
+	}
+
+	/**
+	 * Returns the number of calls, whose latency has been sampled.
+	 * 
+	 * @return The number of calls.
+	 */
+	public long getSampledCalls() {
+		return sampledCalls;
+	}
+
+	/**
+	 * Returns the average latency of all sampled calls, in nanoseconds.
+	 * 
+	 * @return The average latency or {@code 0}, if no calls have been sampled.
+	 */
+	public double getAverageSampledNanos() {
+		return 0 == sampledCalls ? 0 : (double) sampledNanos / sampledCalls;
+	}
+
+	/**
+	 * Returns the maximum latency of all sampled calls, in nanoseconds.
+	 * 
+	 * @return The maximum latency or {@code 0}, if no calls have been sampled.
+	 */
+	public long getMaximumSampledNanos() {
+		return maximumSampledNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "IndentationStatistics [calls=" + getCalls() + ", characters=" + characters + ", bytes=" + bytes
+				+ ", sampledCalls="
+				+ sampledCalls + ", averageSampledNanos=" + getAverageSampledNanos() + ", maximumSampledNanos="
+				+ maximumSampledNanos + "]";
+	}
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * An {@link IndentationStripper} removes the leading whitespace of every line
+ * of a text and, optionally, all line breaks.
+ * 
+ * <p>
+ * Space and tab characters at the beginning of a line are recognized as
+ * leading whitespace. Line feed characters and carriage return characters are
+ * recognized as line breaks, such that every {@link LineBreak} is removed, if
+ * line breaks are removed, and preserved verbatim otherwise. Lines are
+ * concatenated without any separator, if line breaks are removed.
+ * 
+ * <p>
+ * Texts are read and processed in chunks of fixed size and all characters
+ * that are kept are written in runs, such that the amount of memory used is
+ * independent of the size of the text.
+ * 
+ * <p>
+ * Byte streams are processed directly on their bytes, without decoding or
+ * encoding. This is valid for all ASCII compatible charsets, including UTF-8.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentationStripper {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final boolean removeLineBreaks;
+
+	/**
+	 * Creates a new {@link IndentationStripper}.
+	 * 
+	 * @param removeLineBreaks
+	 *            Whether to remove line breaks.
+	 */
+	public IndentationStripper(boolean removeLineBreaks) {
+		this.removeLineBreaks = removeLineBreaks;
+	}
+
+	/**
+	 * Strips the text read from the given {@link Reader} and writes it to the
+	 * given {@link Writer}.
+	 * 
+	 * <p>
+	 * Neither the given {@link Reader} nor the given {@link Writer} are closed
+	 * or flushed.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to read from.
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reader} is {@literal null} or if the
+	 *             given {@link Writer} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link Reader} or writing to the
+	 *             given {@link Writer} failed.
+	 */
+	public void strip(Reader reader, Writer writer) throws IllegalArgumentException, IOException {
+		if (null == reader) {
+			throw new IllegalArgumentException("The given reader is null");
+		}
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		char[] buffer = new char[BUFFER_SIZE];
+		Stripping stripping = new Stripping();
+		int length;
+		while (-1 != (length = reader.read(buffer))) {
+			stripping.process(buffer, length, writer);
+		}
+	}
+
+	/**
+	 * Strips the given {@link CharSequence} and appends it to the given
+	 * {@link Appendable}.
+	 * 
+	 * @param input
+	 *            The {@link CharSequence} to be stripped.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link CharSequence} is {@literal null} or if
+	 *             the given {@link Appendable} is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed.
+	 */
+	public void strip(CharSequence input, Appendable output) throws IllegalArgumentException, IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		Writer writer = output instanceof Writer ? (Writer) output : new AppendableWriter(output);
+		int end = input.length();
+		char[] buffer = new char[Math.min(BUFFER_SIZE, end)];
+		Stripping stripping = new Stripping();
+		for (int offset = 0; offset < end; offset += buffer.length) {
+			int length = Math.min(buffer.length, end - offset);
+			IndentationBuffer.getChars(input, offset, offset + length, buffer, 0);
+			stripping.process(buffer, length, writer);
+		}
+	}
+
+	/**
+	 * Strips the text read from the given {@link InputStream} and writes it to
+	 * the given {@link OutputStream}.
+	 * 
+	 * <p>
+	 * Neither the given {@link InputStream} nor the given {@link OutputStream}
+	 * are closed, but the given {@link OutputStream} is flushed.
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} to read from.
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link InputStream} is {@literal null} or if the
+	 *             given {@link OutputStream} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link InputStream} or writing to
+	 *             the given {@link OutputStream} failed.
+	 */
+	public void strip(InputStream inputStream, OutputStream outputStream) throws IllegalArgumentException,
+			IOException {
+		if (null == inputStream) {
+			throw new IllegalArgumentException("The given input stream is null");
+		}
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		byte[] buffer = new byte[BUFFER_SIZE];
+		Stripping stripping = new Stripping();
+		int length;
+		while (-1 != (length = inputStream.read(buffer))) {
+			stripping.process(buffer, length, outputStream);
+		}
+		outputStream.flush();
+	}
+
+	private final class Stripping {
+
+		private boolean leading = true;
+
+		public void process(char[] chars, int end, Writer writer) throws IOException {
+			int start = 0;
+			for (int position = 0; position < end; position++) {
+				char c = chars[position];
+				if (leading && (' ' == c || '\t' == c)) {
+					if (start < position) {
+						writer.write(chars, start, position - start);
+					}
+					start = position + 1;
+				} else if ('\n' == c || '\r' == c) {
+					leading = true;
+					if (removeLineBreaks) {
+						if (start < position) {
+							writer.write(chars, start, position - start);
+						}
+						start = position + 1;
+					}
+				} else if (leading) {
+					leading = false;
+				}
+			}
+			if (start < end) {
+				writer.write(chars, start, end - start);
+			}
+		}
+
+		public void process(byte[] bytes, int end, OutputStream outputStream) throws IOException {
+			int start = 0;
+			for (int position = 0; position < end; position++) {
+				byte b = bytes[position];
+				if (leading && (' ' == b || '\t' == b)) {
+					if (start < position) {
+						outputStream.write(bytes, start, position - start);
+					}
+					start = position + 1;
+				} else if ('\n' == b || '\r' == b) {
+					leading = true;
+					if (removeLineBreaks) {
+						if (start < position) {
+							outputStream.write(bytes, start, position - start);
+						}
+						start = position + 1;
+					}
+				} else if (leading) {
+					leading = false;
+				}
+			}
+			if (start < end) {
+				outputStream.write(bytes, start, end - start);
+			}
+		}
+
+	}
+
+}
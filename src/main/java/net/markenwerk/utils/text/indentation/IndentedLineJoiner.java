@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * An {@link IndentedLineJoiner} joins lines, each of which is indented with
+ * the indentation string for a given level, separated by the line break
+ * string, if the {@link Indentation} is {@link Indentation#isVisible()
+ * visible}.
+ * 
+ * <p>
+ * Added lines are not copied, but only referenced, until
+ * {@link IndentedLineJoiner#toString()} is called, which calculates the exact
+ * length of the result and copies every line into a character array of that
+ * length. Lines must therefore not be modified after they have been added.
+ * 
+ * <p>
+ * Multiple {@link IndentedLineJoiner IndentedLineJoiners} can be
+ * {@link IndentedLineJoiner#combine(IndentedLineJoiner) combined}, which
+ * preserves the order of the lines and copies only references, such that an
+ * {@link IndentedLineJoiner} can serve as the mutable result container of a
+ * parallel reduction, e.g. with a {@code java.util.stream.Collector}:
+ * 
+ * <pre>
+ * Collector.of(() -&gt; new IndentedLineJoiner(indentation, level),
+ * 		IndentedLineJoiner::add, IndentedLineJoiner::combine,
+ * 		IndentedLineJoiner::toString);
+ * </pre>
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentedLineJoiner {
+
+	private final String prefix;
+
+	private final String lineBreak;
+
+	private CharSequence[] lines = new CharSequence[16];
+
+	private int lineCount;
+
+	private long lineLength;
+
+	/**
+	 * Creates a new {@link IndentedLineJoiner}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param level
+	 *            The level to indent every line with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if
+	 *             the given level is negative.
+	 */
+	public IndentedLineJoiner(Indentation indentation, int level) throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		this.prefix = indentation.get(level);
+		this.lineBreak = indentation.get(0, true);
+	}
+
+	/**
+	 * Adds the given line.
+	 * 
+	 * @param line
+	 *            The line to be added.
+	 * @return This {@link IndentedLineJoiner}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given line is {@literal null}.
+	 */
+	public IndentedLineJoiner add(CharSequence line) throws IllegalArgumentException {
+		if (null == line) {
+			throw new IllegalArgumentException("The given line is null");
+		}
+		ensureCapacity(lineCount + 1);
+		lines[lineCount++] = line;
+		lineLength += line.length();
+		return this;
+	}
+
+	/**
+	 * Adds all lines of the given {@link IndentedLineJoiner} after the lines
+	 * of this {@link IndentedLineJoiner}. The added lines are indented with
+	 * the indentation string of this {@link IndentedLineJoiner}.
+	 * 
+	 * @param other
+	 *            The {@link IndentedLineJoiner} to be combined with.
+	 * @return This {@link IndentedLineJoiner}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link IndentedLineJoiner} is {@literal null}.
+	 */
+	public IndentedLineJoiner combine(IndentedLineJoiner other) throws IllegalArgumentException {
+		if (null == other) {
+			throw new IllegalArgumentException("The given joiner is null");
+		}
+		int otherLineCount = other.lineCount;
+		ensureCapacity(lineCount + otherLineCount);
+		System.arraycopy(other.lines, 0, lines, lineCount, otherLineCount);
+		lineCount += otherLineCount;
+		lineLength += other.lineLength;
+		return this;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > lines.length) {
+			CharSequence[] newLines = new CharSequence[Math.max(capacity, lines.length * 2)];
+			System.arraycopy(lines, 0, newLines, 0, lineCount);
+			lines = newLines;
+		}
+	}
+
+	/**
+	 * Returns the number of added lines.
+	 * 
+	 * @return The number of added lines.
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Returns the length of the joined lines.
+	 * 
+	 * @return The length of the joined lines.
+	 */
+	public long length() {
+		if (0 == lineCount) {
+			return 0;
+		}
+		return lineLength + (long) lineCount * prefix.length() + (long) (lineCount - 1) * lineBreak.length();
+	}
+
+	/**
+	 * Returns the joined lines.
+	 * 
+	 * @return The joined lines.
+	 * 
+	 * @throws IllegalStateException
+	 *             If the length of the joined lines exceeds the maximum length
+	 *             of a string.
+	 */
+	@Override
+	public String toString() throws IllegalStateException {
+		long length = length();
+		if (length > Integer.MAX_VALUE) {
+			throw new IllegalStateException("The joined lines are too long");
+		}
+		char[] chars = new char[(int) length];
+		int prefixLength = prefix.length();
+		int lineBreakLength = lineBreak.length();
+		int position = 0;
+		for (int i = 0; i < lineCount; i++) {
+			if (0 != i) {
+				lineBreak.getChars(0, lineBreakLength, chars, position);
+				position += lineBreakLength;
+			}
+			prefix.getChars(0, prefixLength, chars, position);
+			position += prefixLength;
+			CharSequence line = lines[i];
+			int lineLength = line.length();
+			IndentationBuffer.getChars(line, 0, lineLength, chars, position);
+			position += lineLength;
+		}
+		return new String(chars);
+	}
+
+}
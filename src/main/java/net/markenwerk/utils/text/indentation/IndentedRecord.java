@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+
+/**
+ * An {@link IndentedRecord} is an {@link Appendable} that assembles a record
+ * of indented text, which is written to a {@link ConcurrentRecordWriter} as a
+ * whole, once it is {@link IndentedRecord#commit() committed}.
+ * 
+ * <p>
+ * An {@link IndentedRecord} is obtained from
+ * {@link ConcurrentRecordWriter#newRecord()} and is confined to the thread
+ * that obtained it. The characters of an {@link IndentedRecord} are held in a
+ * reusable character array. After an {@link IndentedRecord} has been
+ * committed, it must not be used any more.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentedRecord implements Appendable {
+
+	private final ConcurrentRecordWriter recordWriter;
+
+	private final Indentation indentation;
+
+	private final String lineBreak;
+
+	private char[] chars;
+
+	private int length;
+
+	private volatile boolean queued;
+
+	IndentedRecord(ConcurrentRecordWriter recordWriter, Indentation indentation, int capacity) {
+		this.recordWriter = recordWriter;
+		this.indentation = indentation;
+		this.lineBreak = indentation.get(0, true);
+		this.chars = new char[capacity];
+	}
+
+	/**
+	 * Appends the indentation string for the given level.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @return This {@link IndentedRecord}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 */
+	public IndentedRecord indent(int level) throws IllegalArgumentException {
+		return append(indentation.getCharSequence(level, false));
+	}
+
+	/**
+	 * Appends the line break string, followed by the indentation string for
+	 * the given level.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @return This {@link IndentedRecord}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative.
+	 */
+	public IndentedRecord lineBreak(int level) throws IllegalArgumentException {
+		return append(indentation.getCharSequence(level, true));
+	}
+
+	/**
+	 * Appends the indentation string for the given level, followed by the
+	 * given line and the line break string, if the {@link Indentation} is
+	 * {@link Indentation#isVisible() visible}.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param line
+	 *            The line to be appended.
+	 * @return This {@link IndentedRecord}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given level is negative or if the given line is
+	 *             {@literal null}.
+	 */
+	public IndentedRecord line(int level, CharSequence line) throws IllegalArgumentException {
+		if (null == line) {
+			throw new IllegalArgumentException("The given line is null");
+		}
+		return indent(level).append(line).append(lineBreak);
+	}
+
+	@Override
+	public IndentedRecord append(CharSequence sequence) {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		return append(sequence, 0, sequence.length());
+	}
+
+	@Override
+	public IndentedRecord append(CharSequence sequence, int start, int end) {
+		if (null == sequence) {
+			sequence = "null";
+		}
+		if (start < 0 || start > end || end > sequence.length()) {
+			throw new IndexOutOfBoundsException("The given range is invalid");
+		}
+		int newLength = length + (end - start);
+		ensureCapacity(newLength);
+		IndentationBuffer.getChars(sequence, start, end, chars, length);
+		length = newLength;
+		return this;
+	}
+
+	@Override
+	public IndentedRecord append(char c) {
+		ensureCapacity(length + 1);
+		chars[length++] = c;
+		return this;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > chars.length) {
+			char[] newChars = new char[Math.max(capacity, chars.length * 2)];
+			System.arraycopy(chars, 0, newChars, 0, length);
+			chars = newChars;
+		}
+	}
+
+	/**
+	 * Returns the number of characters in this {@link IndentedRecord}.
+	 * 
+	 * @return The number of characters.
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Commits this {@link IndentedRecord} to the {@link ConcurrentRecordWriter}
+	 * it has been obtained from.
+	 * 
+	 * @throws IOException
+	 *             If the {@link ConcurrentRecordWriter} has been closed or if
+	 *             writing to its {@link java.io.Writer} failed.
+	 */
+	public void commit() throws IOException {
+		recordWriter.commit(this);
+	}
+
+	char[] getChars() {
+		return chars;
+	}
+
+	boolean isQueued() {
+		return queued;
+	}
+
+	void setQueued(boolean queued) {
+		this.queued = queued;
+	}
+
+	int getCapacity() {
+		return chars.length;
+	}
+
+	void reset() {
+		length = 0;
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, 0, length);
+	}
+
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import net.markenwerk.utils.text.indentation.IndentationFlow.Processor;
+import net.markenwerk.utils.text.indentation.IndentationFlow.Subscriber;
+import net.markenwerk.utils.text.indentation.IndentationFlow.Subscription;
+
+/**
+ * An {@link IndentingLineProcessor} is a {@link Processor} that indents every
+ * received line with the indentation string for a given level and publishes
+ * chunks of indented lines.
+ * 
+ * <p>
+ * Every published chunk consists of up to a given number of complete lines,
+ * each of which is followed by the line break string, if the
+ * {@link Indentation} is {@link Indentation#isVisible() visible}. The
+ * indentation string is obtained once and every chunk is assembled in a
+ * reused character buffer, such that only one string is allocated per chunk,
+ * not per line.
+ * 
+ * <p>
+ * The demand of the {@link Subscriber} is counted in chunks. For every
+ * requested chunk that isn't covered by already buffered or requested lines,
+ * one line is requested from the upstream {@link Subscription}. Buffered lines
+ * are published as soon as the {@link Subscriber} has outstanding demand, even
+ * if the chunk is not yet complete. Lines are only combined into one chunk, if
+ * they are received while the {@link Subscriber} has no outstanding demand or
+ * synchronously, while lines are requested from the upstream
+ * {@link Subscription}. An upstream {@link IndentationFlow.Publisher} that
+ * asynchronously delivers one line at a time while the {@link Subscriber} has
+ * outstanding demand therefore causes one chunk per line. Only one
+ * {@link Subscriber} is supported.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentingLineProcessor implements Processor<CharSequence, CharSequence> {
+
+	/**
+	 * The maximum number of lines in a chunk, if no specific number is given.
+	 */
+	public static final int DEFAULT_LINES_PER_CHUNK = 64;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Queue<String> chunks = new ArrayDeque<String>();
+
+	private final CharSequence prefix;
+
+	private final String lineBreak;
+
+	private final int linesPerChunk;
+
+	private char[] buffer = new char[256];
+
+	private int bufferLength;
+
+	private int bufferedLines;
+
+	private Subscription upstream;
+
+	private Subscriber<? super CharSequence> downstream;
+
+	private long demand;
+
+	private long requested;
+
+	private boolean done;
+
+	private Throwable failure;
+
+	private boolean terminated;
+
+	private boolean cancelled;
+
+	private boolean draining;
+
+	private boolean missed;
+
+	/**
+	 * Creates a new {@link IndentingLineProcessor} with the
+	 * {@link IndentingLineProcessor#DEFAULT_LINES_PER_CHUNK default} maximum
+	 * number of lines per chunk.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param level
+	 *            The level to indent every line with.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if
+	 *             the given level is negative.
+	 */
+	public IndentingLineProcessor(Indentation indentation, int level) throws IllegalArgumentException {
+		this(indentation, level, DEFAULT_LINES_PER_CHUNK);
+	}
+
+	/**
+	 * Creates a new {@link IndentingLineProcessor}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param level
+	 *            The level to indent every line with.
+	 * @param linesPerChunk
+	 *            The maximum number of lines per chunk.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if
+	 *             the given level is negative or if the given number of lines
+	 *             is not positive.
+	 */
+	public IndentingLineProcessor(Indentation indentation, int level, int linesPerChunk)
+			throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (linesPerChunk < 1) {
+			throw new IllegalArgumentException("The given number of lines per chunk is not positive");
+		}
+		this.prefix = indentation.getCharSequence(level, false);
+		this.lineBreak = indentation.get(0, true);
+		this.linesPerChunk = linesPerChunk;
+	}
+
+	@Override
+	public void onSubscribe(Subscription subscription) {
+		if (null == subscription) {
+			throw new NullPointerException("The given subscription is null");
+		}
+		lock.lock();
+		try {
+			if (null != upstream || cancelled) {
+				subscription.cancel();
+				return;
+			}
+			upstream = subscription;
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	@Override
+	public void onNext(CharSequence line) {
+		if (null == line) {
+			throw new NullPointerException("The given line is null");
+		}
+		lock.lock();
+		try {
+			if (done || cancelled) {
+				return;
+			}
+			if (Long.MAX_VALUE != requested) {
+				requested--;
+			}
+			bufferLine(line);
+			if (bufferedLines == linesPerChunk) {
+				bufferChunk();
+			}
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		if (null == throwable) {
+			throw new NullPointerException("The given throwable is null");
+		}
+		lock.lock();
+		try {
+			if (done) {
+				return;
+			}
+			done = true;
+			failure = throwable;
+			bufferChunk();
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	@Override
+	public void onComplete() {
+		lock.lock();
+		try {
+			if (done) {
+				return;
+			}
+			done = true;
+			bufferChunk();
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	@Override
+	public void subscribe(final Subscriber<? super CharSequence> subscriber) {
+		if (null == subscriber) {
+			throw new NullPointerException("The given subscriber is null");
+		}
+		boolean rejected;
+		lock.lock();
+		try {
+			rejected = null != downstream;
+			if (!rejected) {
+				downstream = subscriber;
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (rejected) {
+			subscriber.onSubscribe(new Subscription() {
+
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+
+			});
+			subscriber.onError(new IllegalStateException("The processor already has a subscriber"));
+		} else {
+			subscriber.onSubscribe(new Subscription() {
+
+				@Override
+				public void request(long n) {
+					IndentingLineProcessor.this.request(n);
+				}
+
+				@Override
+				public void cancel() {
+					IndentingLineProcessor.this.cancel();
+				}
+
+			});
+			drain();
+		}
+	}
+
+	private void bufferLine(CharSequence line) {
+		int prefixLength = prefix.length();
+		int lineLength = line.length();
+		int newLength = bufferLength + prefixLength + lineLength + lineBreak.length();
+		if (newLength > buffer.length) {
+			char[] newBuffer = new char[Math.max(newLength, buffer.length * 2)];
+			System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+			buffer = newBuffer;
+		}
+		getChars(prefix, prefixLength);
+		getChars(line, lineLength);
+		lineBreak.getChars(0, lineBreak.length(), buffer, bufferLength);
+		bufferLength += lineBreak.length();
+		bufferedLines++;
+	}
+
+	private void getChars(CharSequence sequence, int length) {
+		IndentationBuffer.getChars(sequence, 0, length, buffer, bufferLength);
+		bufferLength += length;
+	}
+
+	private void bufferChunk() {
+		if (0 != bufferedLines) {
+			chunks.offer(new String(buffer, 0, bufferLength));
+			bufferLength = 0;
+			bufferedLines = 0;
+		}
+	}
+
+	private void request(long n) {
+		if (n < 1) {
+			Subscription subscription;
+			lock.lock();
+			try {
+				if (done) {
+					return;
+				}
+				done = true;
+				failure = new IllegalArgumentException("The requested number of chunks is not positive");
+				chunks.clear();
+				bufferLength = 0;
+				bufferedLines = 0;
+				subscription = upstream;
+			} finally {
+				lock.unlock();
+			}
+			if (null != subscription) {
+				subscription.cancel();
+			}
+		} else {
+			lock.lock();
+			try {
+				demand = Long.MAX_VALUE - demand <= n ? Long.MAX_VALUE : demand + n;
+			} finally {
+				lock.unlock();
+			}
+		}
+		drain();
+	}
+
+	private void cancel() {
+		Subscription subscription;
+		lock.lock();
+		try {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			chunks.clear();
+			subscription = upstream;
+		} finally {
+			lock.unlock();
+		}
+		if (null != subscription) {
+			subscription.cancel();
+		}
+	}
+
+	private void drain() {
+		lock.lock();
+		try {
+			if (draining) {
+				missed = true;
+				return;
+			}
+			draining = true;
+		} finally {
+			lock.unlock();
+		}
+		while (true) {
+			Subscriber<? super CharSequence> subscriber;
+			String chunk = null;
+			boolean terminate = false;
+			Throwable throwable = null;
+			Subscription subscription = null;
+			long upstreamRequest = 0;
+			lock.lock();
+			try {
+				subscriber = downstream;
+				if (cancelled || terminated || null == subscriber) {
+					draining = false;
+					return;
+				}
+				if (0 != demand && chunks.isEmpty()) {
+					bufferChunk();
+				}
+				if (0 != demand && !chunks.isEmpty()) {
+					chunk = chunks.poll();
+					if (Long.MAX_VALUE != demand) {
+						demand--;
+					}
+				} else if (done && chunks.isEmpty()) {
+					terminated = true;
+					terminate = true;
+					throwable = failure;
+				} else if (null != upstream && !done) {
+					upstreamRequest = calculateUpstreamRequest();
+					if (0 != upstreamRequest) {
+						subscription = upstream;
+					}
+				}
+				if (null == chunk && !terminate && null == subscription) {
+					if (!missed) {
+						draining = false;
+						return;
+					}
+					missed = false;
+					continue;
+				}
+			} finally {
+				lock.unlock();
+			}
+			if (null != chunk) {
+				subscriber.onNext(chunk);
+			} else if (terminate) {
+				if (null == throwable) {
+					subscriber.onComplete();
+				} else {
+					subscriber.onError(throwable);
+				}
+			} else {
+				subscription.request(upstreamRequest);
+			}
+		}
+	}
+
+	private long calculateUpstreamRequest() {
+		if (Long.MAX_VALUE == requested) {
+			return 0;
+		}
+		if (Long.MAX_VALUE == demand) {
+			requested = Long.MAX_VALUE;
+			return Long.MAX_VALUE;
+		}
+		long available = chunks.size() + (0 == bufferedLines ? 0 : 1) + requested;
+		if (demand <= available) {
+			return 0;
+		}
+		requested += demand - available;
+		return demand - available;
+	}
+
+}
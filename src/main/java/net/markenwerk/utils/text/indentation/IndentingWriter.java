@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * An {@link IndentingWriter} is a {@link FilterWriter} that indents every line
+ * written to it with a given {@link Indentation} and the current level.
+ * 
+ * <p>
+ * Lines are terminated by a line feed character, which includes the
+ * {@link LineBreak#UNIX} and the {@link LineBreak#WINDOWS} line breaks. The
+ * indentation string is inserted lazily, before the first character of a line
+ * is written. Therefore, changing the level after a line break has been written
+ * affects the following line. Empty lines are not indented.
+ * 
+ * <p>
+ * Written characters are scanned for line breaks and passed to the underlying
+ * {@link Writer} in contiguous ranges, between which the indentation strings
+ * are written with {@link Indentation#appendTo(Appendable, int)}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class IndentingWriter extends FilterWriter {
+
+	private final Indentation indentation;
+
+	private int level;
+
+	private boolean lineStart = true;
+
+	/**
+	 * Creates a new {@link IndentingWriter} with initial level {@code 0}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to be written to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Writer} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null}.
+	 */
+	public IndentingWriter(Writer writer, Indentation indentation) throws IllegalArgumentException {
+		this(writer, indentation, 0);
+	}
+
+	/**
+	 * Creates a new {@link IndentingWriter}.
+	 * 
+	 * @param writer
+	 *            The {@link Writer} to be written to.
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param level
+	 *            The initial level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Writer} is {@literal null} or if the
+	 *             given {@link Indentation} is {@literal null} or if the given
+	 *             level is negative.
+	 */
+	public IndentingWriter(Writer writer, Indentation indentation, int level) throws IllegalArgumentException {
+		super(checkWriter(writer));
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+		this.indentation = indentation;
+		this.level = level;
+	}
+
+	private static Writer checkWriter(Writer writer) {
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		return writer;
+	}
+
+	/**
+	 * Returns the current level.
+	 * 
+	 * @return The current level.
+	 */
+	public int getLevel() {
+		synchronized (lock) {
+			return level;
+		}
+	}
+
+	/**
+	 * Increases the current level by one.
+	 */
+	public void indent() {
+		synchronized (lock) {
+			level++;
+		}
+	}
+
+	/**
+	 * Decreases the current level by one.
+	 * 
+	 * @throws IllegalStateException
+	 *             If the current level is {@code 0}.
+	 */
+	public void outdent() throws IllegalStateException {
+		synchronized (lock) {
+			if (0 == level) {
+				throw new IllegalStateException("The current level is zero");
+			}
+			level--;
+		}
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		synchronized (lock) {
+			if (lineStart && !isLineBreak((char) c)) {
+				indentation.appendTo(out, level);
+				lineStart = false;
+			}
+			out.write(c);
+			if ('\n' == c) {
+				lineStart = true;
+			}
+		}
+	}
+
+	@Override
+	public void write(char[] buffer, int offset, int length) throws IOException {
+		synchronized (lock) {
+			int end = offset + length;
+			int start = offset;
+			int position = offset;
+			while (position < end) {
+				if (lineStart) {
+					if (isLineBreak(buffer[position])) {
+						position++;
+						continue;
+					}
+					if (start < position) {
+						out.write(buffer, start, position - start);
+					}
+					indentation.appendTo(out, level);
+					lineStart = false;
+					start = position;
+				}
+				while (position < end && '\n' != buffer[position]) {
+					position++;
+				}
+				if (position < end) {
+					position++;
+					lineStart = true;
+				}
+			}
+			if (start < end) {
+				out.write(buffer, start, end - start);
+			}
+		}
+	}
+
+	@Override
+	public void write(String string, int offset, int length) throws IOException {
+		synchronized (lock) {
+			int end = offset + length;
+			int start = offset;
+			int position = offset;
+			while (position < end) {
+				if (lineStart) {
+					if (isLineBreak(string.charAt(position))) {
+						position++;
+						continue;
+					}
+					if (start < position) {
+						out.write(string, start, position - start);
+					}
+					indentation.appendTo(out, level);
+					lineStart = false;
+					start = position;
+				}
+				while (position < end && '\n' != string.charAt(position)) {
+					position++;
+				}
+				if (position < end) {
+					position++;
+					lineStart = true;
+				}
+			}
+			if (start < end) {
+				out.write(string, start, end - start);
+			}
+		}
+	}
+
+	private static boolean isLineBreak(char c) {
+		return '\n' == c || '\r' == c;
+	}
+
+}
@@ -22,6 +22,9 @@
 package net.markenwerk.utils.text.indentation;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 /**
  * A {@link InvisibleIndentation} is an {@link Indentation} that has no visible
@@ -78,6 +81,16 @@ public class InvisibleIndentation implements Indentation {
 		return "";
 	}
 
+	@Override
+	public CharSequence getCharSequence(int level) throws IllegalArgumentException {
+		return "";
+	}
+
+	@Override
+	public CharSequence getCharSequence(int level, boolean includeLineBreak) throws IllegalArgumentException {
+		return "";
+	}
+
 	@Override
 	public void appendTo(Appendable appendable, int level) throws IllegalArgumentException, IOException {
 		appendTo(appendable, level, false);
@@ -91,4 +104,56 @@ public class InvisibleIndentation implements Indentation {
 		}
 	}
 
+	@Override
+	public void writeTo(OutputStream outputStream, int level) throws IllegalArgumentException, IOException {
+		writeTo(outputStream, level, false);
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream, int level, boolean includeLineBreak)
+			throws IllegalArgumentException, IOException {
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		checkLevel(level);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level) throws IllegalArgumentException, BufferOverflowException {
+		writeTo(byteBuffer, level, false);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			BufferOverflowException {
+		if (null == byteBuffer) {
+			throw new IllegalArgumentException("The given byte buffer is null");
+		}
+		checkLevel(level);
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level) throws IllegalArgumentException, IndexOutOfBoundsException {
+		return writeTo(bytes, offset, level, false);
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			IndexOutOfBoundsException {
+		if (null == bytes) {
+			throw new IllegalArgumentException("The given byte array is null");
+		}
+		checkLevel(level);
+		if (offset < 0 || offset > bytes.length) {
+			throw new IndexOutOfBoundsException("The given offset is outside of the given byte array");
+		}
+		return 0;
+	}
+
+	private static void checkLevel(int level) throws IllegalArgumentException {
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+	}
+
 }
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * A {@link JsonReformatter} reformats JSON texts with a given
+ * {@link Indentation}.
+ * 
+ * <p>
+ * All whitespace outside of strings is dropped and every member of an object
+ * or element of an array is put on a line of its own, indented with the
+ * indentation string for its nesting depth and preceded by the line break
+ * string of the {@link Indentation}. A space is put after the colon of every
+ * member, if the {@link Indentation} is {@link Indentation#isVisible()
+ * visible}. Empty objects and arrays are emitted as {@code {}} and
+ * {@code []}. Reformatting with {@link Indentation#INVISIBLE} therefore
+ * minifies a JSON text.
+ * 
+ * <p>
+ * Strings, numbers and literals are copied verbatim. The JSON text is not
+ * validated, such that malformed JSON texts are reformatted on a best effort
+ * basis.
+ * 
+ * <p>
+ * Texts are read and processed in chunks of fixed size and the state of the
+ * reformatting is held in a few fields, such that the amount of memory used
+ * is independent of the size of the text and no objects are created per
+ * token.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class JsonReformatter {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Indentation indentation;
+
+	/**
+	 * Creates a new {@link JsonReformatter}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public JsonReformatter(Indentation indentation) throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		this.indentation = indentation;
+	}
+
+	/**
+	 * Reformats the JSON text read from the given {@link Reader} and writes it
+	 * to the given {@link Writer}.
+	 * 
+	 * <p>
+	 * Neither the given {@link Reader} nor the given {@link Writer} are closed
+	 * or flushed.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to read from.
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reader} is {@literal null} or if the
+	 *             given {@link Writer} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link Reader} or writing to the
+	 *             given {@link Writer} failed.
+	 */
+	public void reformat(Reader reader, Writer writer) throws IllegalArgumentException, IOException {
+		if (null == reader) {
+			throw new IllegalArgumentException("The given reader is null");
+		}
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		char[] buffer = new char[BUFFER_SIZE];
+		Reformatting reformatting = new Reformatting(writer);
+		int length;
+		while (-1 != (length = reader.read(buffer))) {
+			reformatting.process(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Reformats the given JSON text and appends it to the given
+	 * {@link Appendable}.
+	 * 
+	 * @param input
+	 *            The JSON text to be reformatted.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given input is {@literal null} or if the given output
+	 *             is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed.
+	 */
+	public void reformat(CharSequence input, Appendable output) throws IllegalArgumentException, IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		Writer writer = output instanceof Writer ? (Writer) output : new AppendableWriter(output);
+		int end = input.length();
+		char[] buffer = new char[Math.min(BUFFER_SIZE, end)];
+		Reformatting reformatting = new Reformatting(writer);
+		for (int offset = 0; offset < end; offset += buffer.length) {
+			int length = Math.min(buffer.length, end - offset);
+			IndentationBuffer.getChars(input, offset, offset + length, buffer, 0);
+			reformatting.process(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Reformats the UTF-8 encoded JSON text read from the given
+	 * {@link InputStream} and writes it, UTF-8 encoded, to the given
+	 * {@link OutputStream}.
+	 * 
+	 * <p>
+	 * Neither the given {@link InputStream} nor the given {@link OutputStream}
+	 * are closed, but the given {@link OutputStream} is flushed.
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} to read from.
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link InputStream} is {@literal null} or if the
+	 *             given {@link OutputStream} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link InputStream} or writing to
+	 *             the given {@link OutputStream} failed.
+	 */
+	public void reformat(InputStream inputStream, OutputStream outputStream) throws IllegalArgumentException,
+			IOException {
+		if (null == inputStream) {
+			throw new IllegalArgumentException("The given input stream is null");
+		}
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		Writer writer = new OutputStreamWriter(outputStream, IndentationBuffer.CHARSET);
+		reformat(new InputStreamReader(inputStream, IndentationBuffer.CHARSET), writer);
+		writer.flush();
+	}
+
+	private final class Reformatting {
+
+		private final Writer writer;
+
+		private final boolean visible = indentation.isVisible();
+
+		private int depth;
+
+		private boolean string;
+
+		private boolean escape;
+
+		private boolean open;
+
+		public Reformatting(Writer writer) {
+			this.writer = writer;
+		}
+
+		public void process(char[] chars, int offset, int end) throws IOException {
+			int verbatimStart = -1;
+			for (int position = offset; position < end; position++) {
+				char c = chars[position];
+				if (string) {
+					if (-1 == verbatimStart) {
+						verbatimStart = position;
+					}
+					if (escape) {
+						escape = false;
+					} else if ('\\' == c) {
+						escape = true;
+					} else if ('"' == c) {
+						string = false;
+					}
+					continue;
+				}
+				switch (c) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+					verbatimStart = writeVerbatim(chars, verbatimStart, position);
+					break;
+				case '{':
+				case '[':
+					verbatimStart = writeVerbatim(chars, verbatimStart, position);
+					lineBreakAfterOpen();
+					writer.write(c);
+					depth++;
+					open = true;
+					break;
+				case '}':
+				case ']':
+					verbatimStart = writeVerbatim(chars, verbatimStart, position);
+					depth = Math.max(0, depth - 1);
+					if (open) {
+						open = false;
+					} else {
+						indentation.appendTo(writer, depth, true);
+					}
+					writer.write(c);
+					break;
+				case ',':
+					verbatimStart = writeVerbatim(chars, verbatimStart, position);
+					lineBreakAfterOpen();
+					writer.write(',');
+					indentation.appendTo(writer, depth, true);
+					break;
+				case ':':
+					verbatimStart = writeVerbatim(chars, verbatimStart, position);
+					lineBreakAfterOpen();
+					writer.write(':');
+					if (visible) {
+						writer.write(' ');
+					}
+					break;
+				default:
+					if (-1 == verbatimStart) {
+						lineBreakAfterOpen();
+						verbatimStart = position;
+					}
+					if ('"' == c) {
+						string = true;
+					}
+				}
+			}
+			writeVerbatim(chars, verbatimStart, end);
+		}
+
+		private int writeVerbatim(char[] chars, int start, int end) throws IOException {
+			if (-1 != start) {
+				writer.write(chars, start, end - start);
+			}
+			return -1;
+		}
+
+		private void lineBreakAfterOpen() throws IOException {
+			if (open) {
+				open = false;
+				indentation.appendTo(writer, depth, true);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link MeteredIndentation} is an {@link Indentation} that delegates to
+ * another {@link Indentation} and records usage statistics.
+ * 
+ * <p>
+ * A {@link MeteredIndentation} counts the calls to all methods that yield
+ * indentation strings, the characters or bytes of these indentation strings
+ * and the requested levels. Optionally, the latency of every n-th call is
+ * sampled. All counters are striped, such that concurrent threads don't
+ * contend with each other. The recorded statistics can be obtained as an
+ * {@link IndentationStatistics} snapshot with
+ * {@link MeteredIndentation#getStatistics()}.
+ * 
+ * <p>
+ * Negative levels are rejected with an {@link IllegalArgumentException} before
+ * anything is counted, even if the delegate would accept them.
+ * 
+ * <p>
+ * The number of characters emitted by {@code appendTo} and the number of bytes
+ * emitted by {@code writeTo} are calculated from the lengths of the
+ * indentation string for level {@code 1} and of the line break string of the
+ * delegate, which are determined once, when the {@link MeteredIndentation} is
+ * created. This assumes that the indentation string for every level consists
+ * of that many repetitions of the indentation string for level {@code 1}, as
+ * it is the case for every {@link AbstractIndentation}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class MeteredIndentation implements Indentation {
+
+	/**
+	 * The number of levels, for which calls are counted individually, if no
+	 * specific number of levels is given.
+	 */
+	public static final int DEFAULT_LEVELS = AbstractIndentation.DEFAULT_MAXIMUM_CACHED_LEVEL;
+
+	private static final long NO_SAMPLE = -1;
+
+	private static final int GET_CALLS = 0;
+
+	private static final int GET_CHAR_SEQUENCE_CALLS = 1;
+
+	private static final int APPEND_TO_CALLS = 2;
+
+	private static final int WRITE_TO_CALLS = 3;
+
+	private static final int CHARACTERS = 4;
+
+	private static final int BYTES = 5;
+
+	private static final int SAMPLED_CALLS = 6;
+
+	private static final int SAMPLED_NANOS = 7;
+
+	private static final int LEVEL_COUNTS = 8;
+
+	private final Indentation indentation;
+
+	private final int indentationLength;
+
+	private final int lineBreakLength;
+
+	private final int indentationByteLength;
+
+	private final int lineBreakByteLength;
+
+	private final int levels;
+
+	private final int sampleInterval;
+
+	private final StripedCounters counters;
+
+	private final AtomicLong maximumSampledNanos = new AtomicLong();
+
+	/**
+	 * Creates a new {@link MeteredIndentation} that doesn't sample latencies
+	 * and that counts calls individually for the
+	 * {@link #DEFAULT_LEVELS default} number of levels.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to delegate to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public MeteredIndentation(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, DEFAULT_LEVELS, 0);
+	}
+
+	/**
+	 * Creates a new {@link MeteredIndentation}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to delegate to.
+	 * @param levels
+	 *            The number of levels, for which calls are counted
+	 *            individually. Calls with higher levels are counted together.
+	 * @param sampleInterval
+	 *            The interval, in calls per thread, in which latencies are
+	 *            sampled or {@code 0}, if no latencies should be sampled.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}, if the
+	 *             given number of levels is negative or if the given sample
+	 *             interval is negative.
+	 */
+	public MeteredIndentation(Indentation indentation, int levels, int sampleInterval)
+			throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (levels < 0) {
+			throw new IllegalArgumentException("The given number of levels is negative");
+		}
+		if (sampleInterval < 0) {
+			throw new IllegalArgumentException("The given sample interval is negative");
+		}
+		this.indentation = indentation;
+		String indentationString = indentation.get(1);
+		String lineBreakString = indentation.get(0, true);
+		this.indentationLength = indentationString.length();
+		this.lineBreakLength = lineBreakString.length();
+		this.indentationByteLength = indentationString.getBytes(IndentationBuffer.CHARSET).length;
+		this.lineBreakByteLength = lineBreakString.getBytes(IndentationBuffer.CHARSET).length;
+		this.levels = levels;
+		this.sampleInterval = sampleInterval;
+		this.counters = new StripedCounters(LEVEL_COUNTS + levels + 1);
+	}
+
+	/**
+	 * Returns the {@link Indentation} this {@link MeteredIndentation} delegates
+	 * to.
+	 * 
+	 * @return The {@link Indentation}.
+	 */
+	public Indentation getIndentation() {
+		return indentation;
+	}
+
+	/**
+	 * Returns a snapshot of the statistics recorded so far.
+	 * 
+	 * <p>
+	 * Calls that happen concurrently with the creation of the snapshot may be
+	 * partially reflected in the snapshot.
+	 * 
+	 * @return The {@link IndentationStatistics}.
+	 */
+	public IndentationStatistics getStatistics() {
+		long[] levelCounts = new long[levels + 1];
+		for (int i = 0; i < levelCounts.length; i++) {
+			levelCounts[i] = counters.sum(LEVEL_COUNTS + i);
+		}
+		return new IndentationStatistics(counters.sum(GET_CALLS), counters.sum(GET_CHAR_SEQUENCE_CALLS),
+				counters.sum(APPEND_TO_CALLS), counters.sum(WRITE_TO_CALLS), counters.sum(CHARACTERS),
+				counters.sum(BYTES), levelCounts, counters.sum(SAMPLED_CALLS), counters.sum(SAMPLED_NANOS),
+				maximumSampledNanos.get());
+	}
+
+	@Override
+	public boolean isVisible() {
+		return indentation.isVisible();
+	}
+
+	@Override
+	public String getLineBreak() {
+		return indentation.getLineBreak();
+	}
+
+	@Override
+	public String get(int level) throws IllegalArgumentException {
+		return get(level, false);
+	}
+
+	@Override
+	public String get(int level, boolean includeLineBreak) throws IllegalArgumentException {
+		long start = begin(GET_CALLS, level);
+		String string = indentation.get(level, includeLineBreak);
+		end(start, level, CHARACTERS, string.length());
+		return string;
+	}
+
+	@Override
+	public CharSequence getCharSequence(int level) throws IllegalArgumentException {
+		return getCharSequence(level, false);
+	}
+
+	@Override
+	public CharSequence getCharSequence(int level, boolean includeLineBreak) throws IllegalArgumentException {
+		long start = begin(GET_CHAR_SEQUENCE_CALLS, level);
+		CharSequence sequence = indentation.getCharSequence(level, includeLineBreak);
+		end(start, level, CHARACTERS, sequence.length());
+		return sequence;
+	}
+
+	@Override
+	public void appendTo(Appendable appendable, int level) throws IllegalArgumentException, IOException {
+		appendTo(appendable, level, false);
+	}
+
+	@Override
+	public void appendTo(Appendable appendable, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			IOException {
+		long start = begin(APPEND_TO_CALLS, level);
+		indentation.appendTo(appendable, level, includeLineBreak);
+		end(start, level, CHARACTERS, (long) level * indentationLength + (includeLineBreak ? lineBreakLength : 0));
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream, int level) throws IllegalArgumentException, IOException {
+		writeTo(outputStream, level, false);
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream, int level, boolean includeLineBreak)
+			throws IllegalArgumentException, IOException {
+		long start = begin(WRITE_TO_CALLS, level);
+		indentation.writeTo(outputStream, level, includeLineBreak);
+		end(start, level, BYTES, (long) level * indentationByteLength + (includeLineBreak ? lineBreakByteLength : 0));
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level) throws IllegalArgumentException, BufferOverflowException {
+		writeTo(byteBuffer, level, false);
+	}
+
+	@Override
+	public void writeTo(ByteBuffer byteBuffer, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			BufferOverflowException {
+		long start = begin(WRITE_TO_CALLS, level);
+		indentation.writeTo(byteBuffer, level, includeLineBreak);
+		end(start, level, BYTES, (long) level * indentationByteLength + (includeLineBreak ? lineBreakByteLength : 0));
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level) throws IllegalArgumentException, IndexOutOfBoundsException {
+		return writeTo(bytes, offset, level, false);
+	}
+
+	@Override
+	public int writeTo(byte[] bytes, int offset, int level, boolean includeLineBreak) throws IllegalArgumentException,
+			IndexOutOfBoundsException {
+		long start = begin(WRITE_TO_CALLS, level);
+		int length = indentation.writeTo(bytes, offset, level, includeLineBreak);
+		end(start, level, BYTES, length);
+		return length;
+	}
+
+	private long begin(int counter, int level) throws IllegalArgumentException {
+		if (level < 0) {
+			throw new IllegalArgumentException("The given level is negative");
+		}
+		long calls = counters.add(counter, 1);
+		if (0 != sampleInterval && 0 == calls % sampleInterval) {
+			return System.nanoTime();
+		}
+		return NO_SAMPLE;
+	}
+
+	private void end(long start, int level, int counter, long length) {
+		counters.add(LEVEL_COUNTS + Math.min(level, levels), 1);
+		counters.add(counter, length);
+		if (NO_SAMPLE != start) {
+			long nanos = System.nanoTime() - start;
+			counters.add(SAMPLED_CALLS, 1);
+			counters.add(SAMPLED_NANOS, nanos);
+			long maximum = maximumSampledNanos.get();
+			while (nanos > maximum && !maximumSampledNanos.compareAndSet(maximum, nanos)) {
+				maximum = maximumSampledNanos.get();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link ParallelReindenter} reindents large {@link CharSequence
+ * CharSequences} with a given {@link Reindenter} by splitting them into chunks
+ * that are processed concurrently by a given {@link ExecutorService}.
+ * 
+ * <p>
+ * Chunks always start at the beginning of a line, such that every chunk can be
+ * reindented independently. The reindented chunks are appended in their
+ * original order. Inputs that are shorter than a given threshold are
+ * reindented sequentially.
+ * 
+ * <p>
+ * The {@link ExecutorService} is neither created nor shut down by a
+ * {@link ParallelReindenter}. Any {@link ExecutorService}, including a
+ * {@code ForkJoinPool}, can be used.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class ParallelReindenter {
+
+	/**
+	 * The length, in characters, below which inputs are reindented
+	 * sequentially, if no specific threshold is given.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1024 * 1024;
+
+	private static final int CHUNKS_PER_PROCESSOR = 4;
+
+	private final Reindenter reindenter;
+
+	private final ExecutorService executorService;
+
+	private final int threshold;
+
+	/**
+	 * Creates a new {@link ParallelReindenter} using the
+	 * {@link ParallelReindenter#DEFAULT_THRESHOLD default} threshold.
+	 * 
+	 * @param reindenter
+	 *            The {@link Reindenter} to be used.
+	 * @param executorService
+	 *            The {@link ExecutorService} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reindenter} is {@literal null} or if the
+	 *             given {@link ExecutorService} is {@literal null}.
+	 */
+	public ParallelReindenter(Reindenter reindenter, ExecutorService executorService)
+			throws IllegalArgumentException {
+		this(reindenter, executorService, DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new {@link ParallelReindenter}.
+	 * 
+	 * @param reindenter
+	 *            The {@link Reindenter} to be used.
+	 * @param executorService
+	 *            The {@link ExecutorService} to be used.
+	 * @param threshold
+	 *            The length, in characters, below which inputs are reindented
+	 *            sequentially. This is also the minimal length of a chunk.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reindenter} is {@literal null} or if the
+	 *             given {@link ExecutorService} is {@literal null} or if the
+	 *             given threshold is not positive.
+	 */
+	public ParallelReindenter(Reindenter reindenter, ExecutorService executorService, int threshold)
+			throws IllegalArgumentException {
+		if (null == reindenter) {
+			throw new IllegalArgumentException("The given reindenter is null");
+		}
+		if (null == executorService) {
+			throw new IllegalArgumentException("The given executor service is null");
+		}
+		if (threshold < 1) {
+			throw new IllegalArgumentException("The given threshold is not positive");
+		}
+		this.reindenter = reindenter;
+		this.executorService = executorService;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Reindents the given {@link CharSequence} and appends it to the given
+	 * {@link Appendable}.
+	 * 
+	 * <p>
+	 * The given {@link CharSequence} must not be modified until this method
+	 * returns.
+	 * 
+	 * @param input
+	 *            The {@link CharSequence} to be reindented.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link CharSequence} is {@literal null} or if
+	 *             the given {@link Appendable} is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed or if the
+	 *             current thread has been interrupted.
+	 */
+	public void reindent(CharSequence input, Appendable output) throws IllegalArgumentException, IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		int length = input.length();
+		if (length < threshold) {
+			reindenter.reindent(input, 0, length, output);
+			return;
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		int chunkLength = Math.max(threshold, length / (processors * CHUNKS_PER_PROCESSOR));
+		List<Future<StringBuilder>> futures = new ArrayList<Future<StringBuilder>>();
+		try {
+			int start = 0;
+			while (start < length) {
+				int end = findChunkEnd(input, start + chunkLength, length);
+				futures.add(executorService.submit(new Chunk(input, start, end)));
+				start = end;
+			}
+			for (Future<StringBuilder> future : futures) {
+				output.append(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a chunk to be reindented");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException("Failed to reindent a chunk", cause);
+		} finally {
+			for (Future<StringBuilder> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	private static int findChunkEnd(CharSequence input, int position, int length) {
+		for (int i = position; i < length; i++) {
+			if ('\n' == input.charAt(i)) {
+				return i + 1;
+			}
+		}
+		return length;
+	}
+
+	private final class Chunk implements Callable<StringBuilder> {
+
+		private final CharSequence input;
+
+		private final int start;
+
+		private final int end;
+
+		public Chunk(CharSequence input, int start, int end) {
+			this.input = input;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public StringBuilder call() throws IOException {
+			int length = end - start;
+			StringBuilder builder = new StringBuilder(length + (length >> 3));
+			reindenter.reindent(input, start, end, builder);
+			return builder;
+		}
+
+	}
+
+}
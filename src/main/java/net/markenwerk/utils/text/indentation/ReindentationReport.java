@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+/**
+ * A {@link ReindentationReport} describes the amount of data processed by a
+ * {@link Reindenter} and the time it took to process it.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class ReindentationReport {
+
+	private final long bytesRead;
+
+	private final long bytesWritten;
+
+	private final long durationNanos;
+
+	/**
+	 * Creates a new {@link ReindentationReport}.
+	 * 
+	 * @param bytesRead
+	 *            The number of bytes read.
+	 * @param bytesWritten
+	 *            The number of bytes written.
+	 * @param durationNanos
+	 *            The duration, in nanoseconds.
+	 */
+	public ReindentationReport(long bytesRead, long bytesWritten, long durationNanos) {
+		this.bytesRead = bytesRead;
+		this.bytesWritten = bytesWritten;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Returns the number of bytes read.
+	 * 
+	 * @return The number of bytes read.
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the number of bytes written.
+	 * 
+	 * @return The number of bytes written.
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Returns the duration, in nanoseconds.
+	 * 
+	 * @return The duration.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Returns the throughput, in bytes read per second.
+	 * 
+	 * @return The throughput.
+	 */
+	public double getThroughput() {
+		if (0 == durationNanos) {
+			return 0;
+		}
+		return bytesRead * 1000000000d / durationNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "ReindentationReport [bytesRead=" + bytesRead + ", bytesWritten=" + bytesWritten + ", durationNanos="
+				+ durationNanos + ", throughput=" + getThroughput() + "]";
+	}
+
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+
+/**
+ * A {@link Reindenter} replaces the leading whitespace of every line of a text
+ * with the indentation string of a given {@link Indentation} and every line
+ * break with a given {@link LineBreak}.
+ * 
+ * <p>
+ * The leading whitespace of a line is converted into a column, where a space
+ * character advances the column by one and a tab character advances the column
+ * to the next multiple of the tab width. The column is then converted into a
+ * level, where every level width columns make up one level. Remaining columns
+ * are preserved as space characters.
+ * 
+ * <p>
+ * Line feed characters, carriage return characters and carriage return
+ * characters followed by a line feed character are recognized as line breaks.
+ * Lines that only consist of whitespace characters are emitted as empty lines.
+ * 
+ * <p>
+ * Texts are read and processed in chunks of fixed size, such that the amount
+ * of memory used is independent of the size of the text.
+ * 
+ * <p>
+ * A {@link Reindenter} that is {@link Reindenter#Reindenter(LineBreak) created}
+ * without an {@link Indentation} preserves the leading whitespace of every line
+ * and only replaces the line breaks.
+ * 
+ * <p>
+ * Files can be {@link Reindenter#reindent(File, File) reindented} with memory
+ * mapped regions of the input file and the output file. This operates directly
+ * on the bytes of the files, which is valid for all ASCII compatible charsets,
+ * including UTF-8.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class Reindenter {
+
+	/**
+	 * The tab width and level width to be used, if no specific widths are
+	 * given.
+	 */
+	public static final int DEFAULT_WIDTH = 4;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final int REGION_SIZE = 64 * 1024 * 1024;
+
+	private final Indentation indentation;
+
+	private final char[] lineBreakChars;
+
+	private final byte[] lineBreakBytes;
+
+	private final int tabWidth;
+
+	private final int levelWidth;
+
+	private final char[] spaceChars;
+
+	private final byte[] spaceBytes;
+
+	/**
+	 * Creates a new {@link Reindenter} that preserves the leading whitespace of
+	 * every line and only replaces the line breaks.
+	 * 
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link LineBreak} is {@literal null}.
+	 */
+	public Reindenter(LineBreak lineBreak) throws IllegalArgumentException {
+		this(null, lineBreak, 1, 1, false);
+	}
+
+	/**
+	 * Creates a new {@link Reindenter} using the
+	 * {@link Reindenter#DEFAULT_WIDTH default} tab width and level width.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if the
+	 *             given {@link LineBreak} is {@literal null}.
+	 */
+	public Reindenter(Indentation indentation, LineBreak lineBreak) throws IllegalArgumentException {
+		this(indentation, lineBreak, DEFAULT_WIDTH, DEFAULT_WIDTH);
+	}
+
+	/**
+	 * Creates a new {@link Reindenter}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * @param tabWidth
+	 *            The number of columns between two tab stops.
+	 * @param levelWidth
+	 *            The number of columns that make up one level.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if the
+	 *             given {@link LineBreak} is {@literal null} or if the given
+	 *             tab width is not positive or if the given level width is not
+	 *             positive.
+	 */
+	public Reindenter(Indentation indentation, LineBreak lineBreak, int tabWidth, int levelWidth)
+			throws IllegalArgumentException {
+		this(indentation, lineBreak, tabWidth, levelWidth, true);
+	}
+
+	private Reindenter(Indentation indentation, LineBreak lineBreak, int tabWidth, int levelWidth,
+			boolean requireIndentation) {
+		if (requireIndentation && null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (null == lineBreak) {
+			throw new IllegalArgumentException("The given line break is null");
+		}
+		if (tabWidth < 1) {
+			throw new IllegalArgumentException("The given tab width is not positive");
+		}
+		if (levelWidth < 1) {
+			throw new IllegalArgumentException("The given level width is not positive");
+		}
+		this.indentation = indentation;
+		this.lineBreakChars = lineBreak.getLineBreakString().toCharArray();
+		this.lineBreakBytes = lineBreak.getLineBreakString().getBytes(IndentationBuffer.CHARSET);
+		this.tabWidth = tabWidth;
+		this.levelWidth = levelWidth;
+		this.spaceChars = new char[levelWidth];
+		this.spaceBytes = new byte[levelWidth];
+		for (int i = 0; i < levelWidth; i++) {
+			spaceChars[i] = ' ';
+			spaceBytes[i] = ' ';
+		}
+	}
+
+	/**
+	 * Reindents the text read from the given {@link Reader} and writes it to
+	 * the given {@link Writer}.
+	 * 
+	 * <p>
+	 * Neither the given {@link Reader} nor the given {@link Writer} are closed
+	 * or flushed.
+	 * 
+	 * @param reader
+	 *            The {@link Reader} to read from.
+	 * @param writer
+	 *            The {@link Writer} to write to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Reader} is {@literal null} or if the
+	 *             given {@link Writer} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link Reader} or writing to the
+	 *             given {@link Writer} failed.
+	 */
+	public void reindent(Reader reader, Writer writer) throws IllegalArgumentException, IOException {
+		if (null == reader) {
+			throw new IllegalArgumentException("The given reader is null");
+		}
+		if (null == writer) {
+			throw new IllegalArgumentException("The given writer is null");
+		}
+		char[] buffer = new char[BUFFER_SIZE];
+		Reindentation reindentation = new Reindentation(writer);
+		int length;
+		while (-1 != (length = reader.read(buffer))) {
+			reindentation.process(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Reindents the given {@link CharSequence} and appends it to the given
+	 * {@link Appendable}.
+	 * 
+	 * @param input
+	 *            The {@link CharSequence} to be reindented.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link CharSequence} is {@literal null} or if
+	 *             the given {@link Appendable} is {@literal null}.
+	 * @throws IOException
+	 *             If appending to the given {@link Appendable} failed.
+	 */
+	public void reindent(CharSequence input, Appendable output) throws IllegalArgumentException, IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		reindent(input, 0, input.length(), output);
+	}
+
+	void reindent(CharSequence input, int start, int end, Appendable output) throws IOException {
+		Writer writer = output instanceof Writer ? (Writer) output : new AppendableWriter(output);
+		char[] buffer = new char[Math.min(BUFFER_SIZE, end - start)];
+		Reindentation reindentation = new Reindentation(writer);
+		for (int offset = start; offset < end; offset += buffer.length) {
+			int length = Math.min(buffer.length, end - offset);
+			IndentationBuffer.getChars(input, offset, offset + length, buffer, 0);
+			reindentation.process(buffer, 0, length);
+		}
+	}
+
+	/**
+	 * Reindents the text read from the given {@link InputStream} and writes it
+	 * to the given {@link OutputStream}, using the given {@link Charset} to
+	 * decode and encode the text.
+	 * 
+	 * <p>
+	 * Neither the given {@link InputStream} nor the given {@link OutputStream}
+	 * are closed, but the given {@link OutputStream} is flushed.
+	 * 
+	 * @param inputStream
+	 *            The {@link InputStream} to read from.
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @param charset
+	 *            The {@link Charset} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link InputStream} is {@literal null} or if the
+	 *             given {@link OutputStream} is {@literal null} or if the given
+	 *             {@link Charset} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given {@link InputStream} or writing to
+	 *             the given {@link OutputStream} failed.
+	 */
+	public void reindent(InputStream inputStream, OutputStream outputStream, Charset charset)
+			throws IllegalArgumentException, IOException {
+		if (null == inputStream) {
+			throw new IllegalArgumentException("The given input stream is null");
+		}
+		if (null == outputStream) {
+			throw new IllegalArgumentException("The given output stream is null");
+		}
+		if (null == charset) {
+			throw new IllegalArgumentException("The given charset is null");
+		}
+		Writer writer = new OutputStreamWriter(outputStream, charset);
+		reindent(new InputStreamReader(inputStream, charset), writer);
+		writer.flush();
+	}
+
+	/**
+	 * Reindents the content of the given input file and writes it to the given
+	 * output file, using memory mapped regions of both files.
+	 * 
+	 * <p>
+	 * The output file is created, if it doesn't exist, and truncated to the
+	 * size of the reindented content, if it does exist. The input file and the
+	 * output file must not be the same file. If reindenting fails, the output
+	 * file is truncated to the size of the content that has been written so
+	 * far.
+	 * 
+	 * <p>
+	 * Only one region of each file is mapped at a time. Regions of the output
+	 * file are only mapped when content has to be written. Mapped regions are
+	 * released by the garbage collector, once they are no longer referenced.
+	 * 
+	 * @param inputFile
+	 *            The {@link File} to read from.
+	 * @param outputFile
+	 *            The {@link File} to write to.
+	 * @return A {@link ReindentationReport} about the processed data.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given input {@link File} is {@literal null} or if the
+	 *             given output {@link File} is {@literal null}.
+	 * @throws IOException
+	 *             If reading from the given input {@link File} or writing to
+	 *             the given output {@link File} failed.
+	 */
+	public ReindentationReport reindent(File inputFile, File outputFile) throws IllegalArgumentException, IOException {
+		if (null == inputFile) {
+			throw new IllegalArgumentException("The given input file is null");
+		}
+		if (null == outputFile) {
+			throw new IllegalArgumentException("The given output file is null");
+		}
+		long start = System.nanoTime();
+		FileInputStream inputStream = new FileInputStream(inputFile);
+		try {
+			RandomAccessFile outputAccess = new RandomAccessFile(outputFile, "rw");
+			try {
+				FileChannel inputChannel = inputStream.getChannel();
+				FileChannel outputChannel = outputAccess.getChannel();
+				MappedReindentation reindentation = new MappedReindentation(outputChannel);
+				long size = inputChannel.size();
+				try {
+					for (long position = 0; position < size; position += REGION_SIZE) {
+						long regionSize = Math.min(REGION_SIZE, size - position);
+						reindentation.process(inputChannel.map(MapMode.READ_ONLY, position, regionSize));
+					}
+				} finally {
+					reindentation.release();
+					outputChannel.truncate(reindentation.getWritten());
+				}
+				return new ReindentationReport(size, reindentation.getWritten(), System.nanoTime() - start);
+			} finally {
+				outputAccess.close();
+			}
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	private final class Reindentation {
+
+		private final Writer writer;
+
+		private boolean leading = null != indentation;
+
+		private boolean carriageReturn;
+
+		private int column;
+
+		public Reindentation(Writer writer) {
+			this.writer = writer;
+		}
+
+		public void process(char[] chars, int offset, int end) throws IOException {
+			int position = offset;
+			while (position < end) {
+				char c = chars[position];
+				if (carriageReturn) {
+					carriageReturn = false;
+					if ('\n' == c) {
+						position++;
+						continue;
+					}
+				}
+				if (leading) {
+					if (' ' == c) {
+						column++;
+						position++;
+					} else if ('\t' == c) {
+						column += tabWidth - column % tabWidth;
+						position++;
+					} else if ('\n' == c || '\r' == c) {
+						lineBreak(c);
+						position++;
+					} else {
+						indentation.appendTo(writer, column / levelWidth);
+						writer.write(spaceChars, 0, column % levelWidth);
+						leading = false;
+					}
+				} else {
+					int start = position;
+					while (position < end && '\n' != chars[position] && '\r' != chars[position]) {
+						position++;
+					}
+					writer.write(chars, start, position - start);
+					if (position < end) {
+						lineBreak(chars[position]);
+						position++;
+					}
+				}
+			}
+		}
+
+		private void lineBreak(char c) throws IOException {
+			writer.write(lineBreakChars, 0, lineBreakChars.length);
+			carriageReturn = '\r' == c;
+			leading = null != indentation;
+			column = 0;
+		}
+
+	}
+
+	private final class MappedReindentation {
+
+		private final FileChannel channel;
+
+		private long regionStart;
+
+		private MappedByteBuffer region;
+
+		private boolean leading = null != indentation;
+
+		private boolean carriageReturn;
+
+		private int column;
+
+		public MappedReindentation(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		public long getWritten() {
+			return null == region ? regionStart : regionStart + region.position();
+		}
+
+		public void release() {
+			if (null != region) {
+				regionStart += region.position();
+				region = null;
+			}
+		}
+
+		public void process(ByteBuffer input) throws IOException {
+			int end = input.limit();
+			int position = input.position();
+			while (position < end) {
+				byte b = input.get(position);
+				if (carriageReturn) {
+					carriageReturn = false;
+					if ('\n' == b) {
+						position++;
+						continue;
+					}
+				}
+				if (leading) {
+					if (' ' == b) {
+						column++;
+						position++;
+					} else if ('\t' == b) {
+						column += tabWidth - column % tabWidth;
+						position++;
+					} else if ('\n' == b || '\r' == b) {
+						lineBreak(b);
+						position++;
+					} else {
+						writeIndentation(column / levelWidth);
+						write(spaceBytes, column % levelWidth);
+						leading = false;
+					}
+				} else {
+					int start = position;
+					byte current = b;
+					while ('\n' != current && '\r' != current && ++position < end) {
+						current = input.get(position);
+					}
+					input.limit(position).position(start);
+					write(input);
+					input.limit(end);
+					if (position < end) {
+						lineBreak(current);
+						position++;
+					}
+				}
+			}
+		}
+
+		private void lineBreak(byte b) throws IOException {
+			write(lineBreakBytes, lineBreakBytes.length);
+			carriageReturn = '\r' == b;
+			leading = null != indentation;
+			column = 0;
+		}
+
+		private void writeIndentation(int level) throws IOException {
+			if (null == region) {
+				nextRegion();
+			}
+			try {
+				indentation.writeTo(region, level);
+			} catch (BufferOverflowException e) {
+				nextRegion();
+				indentation.writeTo(region, level);
+			}
+		}
+
+		private void write(byte[] bytes, int length) throws IOException {
+			if (null == region || region.remaining() < length) {
+				nextRegion();
+			}
+			region.put(bytes, 0, length);
+		}
+
+		private void write(ByteBuffer input) throws IOException {
+			while (input.hasRemaining()) {
+				if (null == region || !region.hasRemaining()) {
+					nextRegion();
+				}
+				if (input.remaining() <= region.remaining()) {
+					region.put(input);
+				} else {
+					int limit = input.limit();
+					input.limit(input.position() + region.remaining());
+					region.put(input);
+					input.limit(limit);
+				}
+			}
+		}
+
+		private void nextRegion() throws IOException {
+			release();
+			region = channel.map(MapMode.READ_WRITE, regionStart, REGION_SIZE);
+		}
+
+	}
+
+}
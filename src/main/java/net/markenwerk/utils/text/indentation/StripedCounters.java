@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link StripedCounters} is a fixed number of counters, that are striped
+ * over multiple cells, such that concurrent threads usually update different
+ * cells.
+ * 
+ * <p>
+ * The cells of all counters for one stripe are stored next to each other and
+ * the cells of different stripes are separated by a padding, that is at least
+ * as large as a typical cache line. The stripe used by a thread is derived from
+ * its {@link Thread#getId() id}.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+final class StripedCounters {
+
+	private static final int PADDING = 8;
+
+	private static final int STRIPES = stripes();
+
+	private final int stride;
+
+	private final AtomicLongArray cells;
+
+	/**
+	 * Creates a new {@link StripedCounters}.
+	 * 
+	 * @param counters
+	 *            The number of counters.
+	 */
+	public StripedCounters(int counters) {
+		this.stride = counters + PADDING;
+		this.cells = new AtomicLongArray(STRIPES * stride);
+	}
+
+	private static int stripes() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int stripes = 1;
+		while (stripes < 2 * processors) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+	private int offset() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return ((hash >>> 16) & (STRIPES - 1)) * stride;
+	}
+
+	/**
+	 * Adds the given delta to the given counter.
+	 * 
+	 * @param counter
+	 *            The counter to be modified.
+	 * @param delta
+	 *            The delta to be added.
+	 * @return The new value of the cell of the counter, that has been modified.
+	 */
+	public long add(int counter, long delta) {
+		return cells.addAndGet(offset() + counter, delta);
+	}
+
+	/**
+	 * Returns the sum of all cells of the given counter.
+	 * 
+	 * <p>
+	 * The sum is not an atomic snapshot, if the counter is modified
+	 * concurrently.
+	 * 
+	 * @param counter
+	 *            The counter to be summed up.
+	 * @return The sum.
+	 */
+	public long sum(int counter) {
+		long sum = 0;
+		for (int offset = counter; offset < cells.length(); offset += stride) {
+			sum += cells.get(offset);
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.util.List;
+
+/**
+ * A {@link TextEdit} describes the replacement of a range of a text with a
+ * replacement string.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class TextEdit {
+
+	private final int start;
+
+	private final int end;
+
+	private final String replacement;
+
+	/**
+	 * Creates a new {@link TextEdit}.
+	 * 
+	 * @param start
+	 *            The start of the replaced range, inclusive.
+	 * @param end
+	 *            The end of the replaced range, exclusive.
+	 * @param replacement
+	 *            The replacement string.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given start is negative or if the given end is before
+	 *             the given start or if the given replacement string is
+	 *             {@literal null}.
+	 */
+	public TextEdit(int start, int end, String replacement) throws IllegalArgumentException {
+		if (start < 0) {
+			throw new IllegalArgumentException("The given start is negative");
+		}
+		if (end < start) {
+			throw new IllegalArgumentException("The given end is before the given start");
+		}
+		if (null == replacement) {
+			throw new IllegalArgumentException("The given replacement is null");
+		}
+		this.start = start;
+		this.end = end;
+		this.replacement = replacement;
+	}
+
+	/**
+	 * Returns the start of the replaced range, inclusive.
+	 * 
+	 * @return The start.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the end of the replaced range, exclusive.
+	 * 
+	 * @return The end.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns the replacement string.
+	 * 
+	 * @return The replacement string.
+	 */
+	public String getReplacement() {
+		return replacement;
+	}
+
+	/**
+	 * Applies the given {@link TextEdit TextEdits} to the given
+	 * {@link StringBuilder}. The {@link TextEdit TextEdits} must be ordered by
+	 * their position and must not overlap, and all ranges refer to the text
+	 * before any {@link TextEdit} has been applied.
+	 * 
+	 * @param builder
+	 *            The {@link StringBuilder} to apply the {@link TextEdit
+	 *            TextEdits} to.
+	 * @param edits
+	 *            The {@link TextEdit TextEdits} to be applied.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link StringBuilder} is {@literal null} or if
+	 *             the given {@link List} is {@literal null}.
+	 */
+	public static void apply(StringBuilder builder, List<TextEdit> edits) throws IllegalArgumentException {
+		if (null == builder) {
+			throw new IllegalArgumentException("The given builder is null");
+		}
+		if (null == edits) {
+			throw new IllegalArgumentException("The given list of edits is null");
+		}
+		for (int i = edits.size() - 1; i >= 0; i--) {
+			TextEdit edit = edits.get(i);
+			builder.replace(edit.start, edit.end, edit.replacement);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TextEdit [start=" + start + ", end=" + end + ", replacement=" + replacement + "]";
+	}
+
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+
+/**
+ * A {@link TreeIndentation} is an {@link Indentation} that creates the guide
+ * strings used to render trees, e.g. directory or dependency trees.
+ * 
+ * <p>
+ * The prefix of a tree node depends not only on its level, but also on
+ * whether the node and each of its ancestors is the last child of its
+ * parent. Prefixes are obtained from a {@link TreeIndentation.Node}: the
+ * {@link TreeIndentation#getRoot() root node} has an empty prefix, and
+ * {@link TreeIndentation.Node#getChild(boolean)} yields the node for the first
+ * or last child. Nodes form a trie keyed by the path of "last child" flags.
+ * Every node and its prefix are created once and are reused by all siblings
+ * and all subsequent calls, such that rendering a tree with millions of nodes
+ * only creates as many prefixes as there are distinct paths.
+ * 
+ * <pre>
+ * root                 (root node)
+ * ├── a                (root.getChild(false))
+ * │   └── b            (root.getChild(false).getChild(true))
+ * └── c                (root.getChild(true))
+ *     └── d            (root.getChild(true).getChild(true))
+ * </pre>
+ * 
+ * <p>
+ * The level based methods of the {@link Indentation} interface repeat the
+ * guide string, as if no ancestor was the last child of its parent.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class TreeIndentation extends AbstractIndentation {
+
+	/**
+	 * The prefix string for a node that is not the last child of its parent
+	 * ({@code "├── "}), if no specific string is given.
+	 */
+	public static final String DEFAULT_BRANCH = "├── ";
+
+	/**
+	 * The prefix string for a node that is the last child of its parent (
+	 * {@code "└── "}), if no specific string is given.
+	 */
+	public static final String DEFAULT_LAST_BRANCH = "└── ";
+
+	/**
+	 * The guide string below a node that is not the last child of its parent
+	 * ({@code "│   "}), if no specific string is given.
+	 */
+	public static final String DEFAULT_GUIDE = "│   ";
+
+	/**
+	 * The guide string below a node that is the last child of its parent (
+	 * {@code "    "}), if no specific string is given.
+	 */
+	public static final String DEFAULT_LAST_GUIDE = "    ";
+
+	private final String branch;
+
+	private final String lastBranch;
+
+	private final String guide;
+
+	private final String lastGuide;
+
+	private final Node root;
+
+	/**
+	 * Creates a new {@link TreeIndentation} with the default strings.
+	 * 
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link LineBreak} is {@literal null}.
+	 */
+	public TreeIndentation(LineBreak lineBreak) throws IllegalArgumentException {
+		this(DEFAULT_BRANCH, DEFAULT_LAST_BRANCH, DEFAULT_GUIDE, DEFAULT_LAST_GUIDE, lineBreak);
+	}
+
+	/**
+	 * Creates a new {@link TreeIndentation}.
+	 * 
+	 * @param branch
+	 *            The prefix string for a node that is not the last child of
+	 *            its parent.
+	 * @param lastBranch
+	 *            The prefix string for a node that is the last child of its
+	 *            parent.
+	 * @param guide
+	 *            The guide string below a node that is not the last child of
+	 *            its parent.
+	 * @param lastGuide
+	 *            The guide string below a node that is the last child of its
+	 *            parent.
+	 * @param lineBreak
+	 *            The {@link LineBreak} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If any of the given strings is {@literal null} or if the
+	 *             given {@link LineBreak} is {@literal null}.
+	 */
+	public TreeIndentation(String branch, String lastBranch, String guide, String lastGuide, LineBreak lineBreak)
+			throws IllegalArgumentException {
+		super(fromGuide(guide), lineBreak);
+		if (null == branch) {
+			throw new IllegalArgumentException("The given branch string is null");
+		}
+		if (null == lastBranch) {
+			throw new IllegalArgumentException("The given last branch string is null");
+		}
+		if (null == lastGuide) {
+			throw new IllegalArgumentException("The given last guide string is null");
+		}
+		this.branch = branch;
+		this.lastBranch = lastBranch;
+		this.guide = guide;
+		this.lastGuide = lastGuide;
+		this.root = new Node(null, false, "", "");
+	}
+
+	private static String fromGuide(String guide) {
+		if (null == guide) {
+			throw new IllegalArgumentException("The given guide string is null");
+		}
+		return guide;
+	}
+
+	/**
+	 * Returns the root {@link Node} of this {@link TreeIndentation}, whose
+	 * prefix is the empty string.
+	 * 
+	 * @return The root {@link Node}.
+	 */
+	public Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * A {@link Node} represents the path from the root of a tree to a node of
+	 * the tree and holds the prefix string for that node.
+	 * 
+	 * @author Torsten Krause (tk at markenwerk dot net)
+	 * @since 2.0.0
+	 */
+	public final class Node {
+
+		private final Node parent;
+
+		private final boolean last;
+
+		private final int level;
+
+		private final String prefix;
+
+		private final String lineBreakPrefix;
+
+		private final String continuation;
+
+		private volatile Node child;
+
+		private volatile Node lastChild;
+
+		private Node(Node parent, boolean last, String prefix, String continuation) {
+			this.parent = parent;
+			this.last = last;
+			this.level = null == parent ? 0 : parent.level + 1;
+			this.prefix = prefix;
+			this.lineBreakPrefix = getLineBreak() + prefix;
+			this.continuation = continuation;
+		}
+
+		/**
+		 * Returns the parent of this {@link Node}.
+		 * 
+		 * @return The parent or {@literal null}, if this {@link Node} is the
+		 *         root node.
+		 */
+		public Node getParent() {
+			return parent;
+		}
+
+		/**
+		 * Returns whether this {@link Node} represents the last child of its
+		 * parent.
+		 * 
+		 * @return Whether this {@link Node} is the last child.
+		 */
+		public boolean isLast() {
+			return last;
+		}
+
+		/**
+		 * Returns the level of this {@link Node}, which is {@code 0} for the
+		 * root node.
+		 * 
+		 * @return The level.
+		 */
+		public int getLevel() {
+			return level;
+		}
+
+		/**
+		 * Returns the {@link Node} for a child of this {@link Node}. The
+		 * returned {@link Node} is created once and reused for all subsequent
+		 * calls.
+		 * 
+		 * @param last
+		 *            Whether the child is the last child of this {@link Node}.
+		 * @return The {@link Node} for the child.
+		 */
+		public Node getChild(boolean last) {
+			Node child = last ? this.lastChild : this.child;
+			if (null == child) {
+				child = createChild(last);
+			}
+			return child;
+		}
+
+		private synchronized Node createChild(boolean last) {
+			Node child = last ? this.lastChild : this.child;
+			if (null == child) {
+				if (last) {
+					child = new Node(this, true, continuation + lastBranch, continuation + lastGuide);
+					this.lastChild = child;
+				} else {
+					child = new Node(this, false, continuation + branch, continuation + guide);
+					this.child = child;
+				}
+			}
+			return child;
+		}
+
+		/**
+		 * Returns the prefix string for the first line of this {@link Node}.
+		 * 
+		 * @return The prefix string.
+		 */
+		public String get() {
+			return prefix;
+		}
+
+		/**
+		 * Returns the prefix string for the first line of this {@link Node},
+		 * optionally preceded by the line break string.
+		 * 
+		 * @param includeLineBreak
+		 *            Whether to include the line break characters.
+		 * @return The prefix string.
+		 */
+		public String get(boolean includeLineBreak) {
+			return includeLineBreak ? lineBreakPrefix : prefix;
+		}
+
+		/**
+		 * Returns the prefix string for all following lines of this
+		 * {@link Node}, which is also the part of the prefix string shared by
+		 * all children of this {@link Node}.
+		 * 
+		 * @return The continuation string.
+		 */
+		public String getContinuation() {
+			return continuation;
+		}
+
+		/**
+		 * Appends the prefix string for the first line of this {@link Node} to
+		 * the given {@link Appendable}.
+		 * 
+		 * @param appendable
+		 *            The {@link Appendable} to append to.
+		 * 
+		 * @throws IllegalArgumentException
+		 *             If the given {@link Appendable} is {@literal null}.
+		 * @throws IOException
+		 *             If appending to the given {@link Appendable} failed.
+		 */
+		public void appendTo(Appendable appendable) throws IllegalArgumentException, IOException {
+			appendTo(appendable, false);
+		}
+
+		/**
+		 * Appends the prefix string for the first line of this {@link Node},
+		 * optionally preceded by the line break string, to the given
+		 * {@link Appendable}.
+		 * 
+		 * @param appendable
+		 *            The {@link Appendable} to append to.
+		 * @param includeLineBreak
+		 *            Whether to include the line break characters.
+		 * 
+		 * @throws IllegalArgumentException
+		 *             If the given {@link Appendable} is {@literal null}.
+		 * @throws IOException
+		 *             If appending to the given {@link Appendable} failed.
+		 */
+		public void appendTo(Appendable appendable, boolean includeLineBreak) throws IllegalArgumentException,
+				IOException {
+			if (null == appendable) {
+				throw new IllegalArgumentException("The given appendable is null");
+			}
+			appendable.append(includeLineBreak ? lineBreakPrefix : prefix);
+		}
+
+	}
+
+}
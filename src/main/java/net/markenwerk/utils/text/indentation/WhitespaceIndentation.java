@@ -22,6 +22,7 @@
 package net.markenwerk.utils.text.indentation;
 
 import java.io.Writer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * An {@link WhitespaceIndentation} is an {@link Indentation} that repeats a
@@ -31,11 +32,26 @@ import java.io.Writer;
  * The strings containing the repetitions of the indentation string will be
  * reused.
  * 
+ * <p>
+ * All instances that use the same {@link Whitespace} character share a
+ * process-wide, lazily grown character array and byte array, if the line break
+ * string is empty, a line feed or a carriage return followed by a line feed.
+ * Canonical instances can be obtained with
+ * {@link WhitespaceIndentation#of(Whitespace, int, LineBreak)}.
+ * 
  * @author Torsten Krause (tk at markenwerk dot net)
  * @since 1.0.0
  */
 public final class WhitespaceIndentation extends AbstractIndentation {
 
+	private static final int MAXIMUM_INTERNED_LENGTH = 16;
+
+	private static final int WHITESPACES = Whitespace.values().length;
+
+	private static final int LINE_BREAKS = LineBreak.values().length;
+
+	private static final AtomicReferenceArray<WhitespaceIndentation> INTERNED = createInterned();
+
 	/**
 	 * Creates a new {@link WhitespaceIndentation} using the
 	 * {@link LineBreak#SYSTEM} {@link LineBreak}.
@@ -80,7 +96,88 @@ public final class WhitespaceIndentation extends AbstractIndentation {
 	 */
 	public WhitespaceIndentation(Whitespace whitespace, int length, LineBreak lineBreak)
 			throws IllegalArgumentException {
-		super(fromWhitespaceAndLength(whitespace, length), lineBreak);
+		this(whitespace, length, lineBreak, DEFAULT_MAXIMUM_CACHED_LEVEL);
+	}
+
+	/**
+	 * Creates a new {@link WhitespaceIndentation}.
+	 * 
+	 * <p>
+	 * A {@link WhitespaceIndentation} with level {@code 0} has no visible
+	 * effect.
+	 * 
+	 * @param whitespace
+	 *            The {@link Whitespace} character to be used.
+	 * @param length
+	 *            The indentation length to be used.
+	 * @param lineBreak
+	 *            the {@link LineBreak} to be used.
+	 * @param maximumCachedLevel
+	 *            The maximum level, up to which indentation strings are cached.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Whitespace} character is {@literal null}
+	 *             or if the given indentation length is negative or if the
+	 *             given {@link LineBreak} is {@literal null} or if the given
+	 *             maximum cached level is negative.
+	 * @since 2.0.0
+	 */
+	public WhitespaceIndentation(Whitespace whitespace, int length, LineBreak lineBreak, int maximumCachedLevel)
+			throws IllegalArgumentException {
+		super(fromWhitespaceAndLength(whitespace, length), lineBreak, maximumCachedLevel, IndentationBuffer.getShared(
+				whitespace, lineBreak));
+	}
+
+	/**
+	 * Returns a canonical {@link WhitespaceIndentation}.
+	 * 
+	 * <p>
+	 * For indentation lengths up to {@code 16}, the same instance is returned
+	 * for all calls with the same arguments. For longer indentation lengths, a
+	 * new instance is returned.
+	 * 
+	 * @param whitespace
+	 *            The {@link Whitespace} character to be used.
+	 * @param length
+	 *            The indentation length to be used.
+	 * @param lineBreak
+	 *            the {@link LineBreak} to be used.
+	 * @return The {@link WhitespaceIndentation}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Whitespace} character is {@literal null}
+	 *             or if the given indentation length is negative or if the
+	 *             given {@link LineBreak} is {@literal null}.
+	 * @since 2.0.0
+	 */
+	public static WhitespaceIndentation of(Whitespace whitespace, int length, LineBreak lineBreak)
+			throws IllegalArgumentException {
+		if (null == whitespace) {
+			throw new IllegalArgumentException("The given whitespace is null");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("The given length is negative");
+		}
+		if (null == lineBreak) {
+			throw new IllegalArgumentException("The given line break is null");
+		}
+		if (length > MAXIMUM_INTERNED_LENGTH) {
+			return new WhitespaceIndentation(whitespace, length, lineBreak);
+		}
+		int index = (whitespace.ordinal() * LINE_BREAKS + lineBreak.ordinal()) * (MAXIMUM_INTERNED_LENGTH + 1) + length;
+		WhitespaceIndentation indentation = INTERNED.get(index);
+		if (null == indentation) {
+			indentation = new WhitespaceIndentation(whitespace, length, lineBreak);
+			if (!INTERNED.compareAndSet(index, null, indentation)) {
+				indentation = INTERNED.get(index);
+			}
+		}
+		return indentation;
+	}
+
+	private static AtomicReferenceArray<WhitespaceIndentation> createInterned() {
+		return new AtomicReferenceArray<WhitespaceIndentation>(WHITESPACES * LINE_BREAKS
+				* (MAXIMUM_INTERNED_LENGTH + 1));
 	}
 
 	private static String fromWhitespaceAndLength(Whitespace whitespace, int length) {
@@ -90,11 +187,11 @@ public final class WhitespaceIndentation extends AbstractIndentation {
 		if (length < 0) {
 			throw new IllegalArgumentException("The given length is negative");
 		}
-		String indentation = "";
+		StringBuilder builder = new StringBuilder(length);
 		for (int i = 0; i < length; i++) {
-			indentation += whitespace.getWhitespaceString();
+			builder.append(whitespace.getWhitespaceString());
 		}
-		return indentation;
+		return builder.toString();
 	}
 
 }
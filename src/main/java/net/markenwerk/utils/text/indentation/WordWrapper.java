@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Torsten Krause, Markenwerk GmbH
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link WordWrapper} wraps text to a maximum width, indenting the first
+ * line with the indentation string for a given level and all continuation
+ * lines with the indentation string for another level.
+ * 
+ * <p>
+ * Words are separated by any whitespace characters, which are replaced by a
+ * single space. Lines are filled greedily, such that the length of a line,
+ * including its indentation string, doesn't exceed the given width, unless a
+ * single word is too long, in which case that word is put on a line of its
+ * own. The width of an indentation string is measured in columns, where a tab
+ * advances to the next multiple of the tab width. If the {@link Indentation}
+ * is not {@link Indentation#isVisible() visible}, all words are put on a
+ * single line.
+ * 
+ * <p>
+ * Indentation strings are appended with
+ * {@link Indentation#appendTo(Appendable, int, boolean)} and words are
+ * appended as ranges of the input. No strings are created per word or per
+ * line.
+ * 
+ * @author Torsten Krause (tk at markenwerk dot net)
+ * @since 2.0.0
+ */
+public final class WordWrapper {
+
+	/**
+	 * The tab width, if no specific tab width is given.
+	 */
+	public static final int DEFAULT_TAB_WIDTH = 4;
+
+	private static final int BUFFER_SIZE = 256;
+
+	private final Indentation indentation;
+
+	private final int tabWidth;
+
+	/**
+	 * Creates a new {@link WordWrapper} with the
+	 * {@link WordWrapper#DEFAULT_TAB_WIDTH default} tab width.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null}.
+	 */
+	public WordWrapper(Indentation indentation) throws IllegalArgumentException {
+		this(indentation, DEFAULT_TAB_WIDTH);
+	}
+
+	/**
+	 * Creates a new {@link WordWrapper}.
+	 * 
+	 * @param indentation
+	 *            The {@link Indentation} to be used.
+	 * @param tabWidth
+	 *            The tab width to be used.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given {@link Indentation} is {@literal null} or if the
+	 *             given tab width is not positive.
+	 */
+	public WordWrapper(Indentation indentation, int tabWidth) throws IllegalArgumentException {
+		if (null == indentation) {
+			throw new IllegalArgumentException("The given indentation is null");
+		}
+		if (tabWidth < 1) {
+			throw new IllegalArgumentException("The given tab width is not positive");
+		}
+		this.indentation = indentation;
+		this.tabWidth = tabWidth;
+	}
+
+	/**
+	 * Wraps the given input and appends the wrapped lines to the given output.
+	 * No line break is appended after the last line.
+	 * 
+	 * @param input
+	 *            The input to be wrapped.
+	 * @param output
+	 *            The {@link Appendable} to append to.
+	 * @param width
+	 *            The maximum width of a line.
+	 * @param firstLevel
+	 *            The level of the first line.
+	 * @param continuationLevel
+	 *            The level of all continuation lines.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the given input is {@literal null} or if the given output
+	 *             is {@literal null} or if the given width is not positive or
+	 *             if one of the given levels is negative.
+	 * @throws IOException
+	 *             If appending to the given output failed.
+	 */
+	public void wrap(CharSequence input, Appendable output, int width, int firstLevel, int continuationLevel)
+			throws IllegalArgumentException, IOException {
+		if (null == input) {
+			throw new IllegalArgumentException("The given input is null");
+		}
+		if (null == output) {
+			throw new IllegalArgumentException("The given output is null");
+		}
+		if (width < 1) {
+			throw new IllegalArgumentException("The given width is not positive");
+		}
+		int firstWidth = width - getColumns(indentation.getCharSequence(firstLevel, false));
+		int continuationWidth = width - getColumns(indentation.getCharSequence(continuationLevel, false));
+		if (!indentation.isVisible()) {
+			firstWidth = Integer.MAX_VALUE;
+			continuationWidth = Integer.MAX_VALUE;
+		}
+		Writer writer = output instanceof Writer ? (Writer) output : null;
+		char[] buffer = null;
+		if (null != writer && !(input instanceof String)) {
+			buffer = new char[BUFFER_SIZE];
+		}
+		int length = input.length();
+		int position = 0;
+		int lineLength = -1;
+		int lineWidth = firstWidth;
+		while (true) {
+			while (position < length && Character.isWhitespace(input.charAt(position))) {
+				position++;
+			}
+			if (position == length) {
+				return;
+			}
+			int start = position;
+			while (position < length && !Character.isWhitespace(input.charAt(position))) {
+				position++;
+			}
+			int wordLength = position - start;
+			if (-1 == lineLength) {
+				indentation.appendTo(output, firstLevel, false);
+				lineLength = wordLength;
+			} else if (lineLength + 1 + wordLength <= lineWidth) {
+				output.append(' ');
+				lineLength += 1 + wordLength;
+			} else {
+				indentation.appendTo(output, continuationLevel, true);
+				lineLength = wordLength;
+				lineWidth = continuationWidth;
+			}
+			if (null == writer) {
+				output.append(input, start, position);
+			} else if (null == buffer) {
+				writer.write((String) input, start, wordLength);
+			} else {
+				write(input, start, position, writer, buffer);
+			}
+		}
+	}
+
+	private int getColumns(CharSequence indentationString) {
+		int columns = 0;
+		for (int i = 0, n = indentationString.length(); i < n; i++) {
+			if ('\t' == indentationString.charAt(i)) {
+				columns += tabWidth - columns % tabWidth;
+			} else {
+				columns++;
+			}
+		}
+		return columns;
+	}
+
+	private static void write(CharSequence input, int start, int end, Writer writer, char[] buffer)
+			throws IOException {
+		while (start < end) {
+			int chunkLength = Math.min(end - start, buffer.length);
+			IndentationBuffer.getChars(input, start, start + chunkLength, buffer, 0);
+			writer.write(buffer, 0, chunkLength);
+			start += chunkLength;
+		}
+	}
+
+}
@@ -0,0 +1,288 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class AsynchronousWriterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullWriter() {
+
+		new AsynchronousWriter(null, INDENTATION);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new AsynchronousWriter(new StringWriter(), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveCapacity() {
+
+		new AsynchronousWriter(new StringWriter(), INDENTATION, 0, 1, TimeUnit.SECONDS, BackPressure.BLOCK);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullBackPressure() {
+
+		new AsynchronousWriter(new StringWriter(), INDENTATION, 16, 1, TimeUnit.SECONDS, null);
+
+	}
+
+	@Test
+	public void flush_writesLines() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION);
+
+		asynchronousWriter.writeLine(0, "a {");
+		asynchronousWriter.writeLine(1, "b;");
+		asynchronousWriter.writeIndentation(0);
+		asynchronousWriter.write("}");
+		asynchronousWriter.flush();
+
+		Assert.assertEquals("a {\n  b;\n}", writer.toString());
+		Assert.assertEquals(0, asynchronousWriter.getQueueDepth());
+		Assert.assertTrue(asynchronousWriter.getBatches() > 0);
+
+		asynchronousWriter.close();
+
+	}
+
+	@Test
+	public void write_flushInterval() throws Exception {
+
+		StringWriter writer = new StringWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 1024, 10,
+				TimeUnit.MILLISECONDS, BackPressure.BLOCK);
+
+		asynchronousWriter.write("foo");
+		for (int i = 0; i < 500 && 0 == writer.getBuffer().length(); i++) {
+			Thread.sleep(10);
+		}
+
+		Assert.assertEquals("foo", writer.toString());
+
+		asynchronousWriter.close();
+
+	}
+
+	@Test
+	public void write_blockBeyondCapacity() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 16, 1,
+				TimeUnit.SECONDS, BackPressure.BLOCK);
+		StringBuilder expected = new StringBuilder();
+
+		for (int i = 0; i < 100; i++) {
+			asynchronousWriter.writeLine(i % 3, "line" + i);
+			expected.append(INDENTATION.get(i % 3)).append("line").append(i).append('\n');
+		}
+		asynchronousWriter.write(expected.toString());
+		expected.append(expected.toString());
+		asynchronousWriter.flush();
+
+		Assert.assertEquals(expected.toString(), writer.toString());
+		Assert.assertEquals(0, asynchronousWriter.getDroppedCharacters());
+		Assert.assertEquals(16, asynchronousWriter.getCapacity());
+
+		asynchronousWriter.close();
+
+	}
+
+	@Test
+	public void write_dropBeyondCapacity() throws IOException {
+
+		BlockingWriter writer = new BlockingWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 8, 1, TimeUnit.SECONDS,
+				BackPressure.DROP);
+
+		asynchronousWriter.write("12345");
+		asynchronousWriter.write("6789");
+		writer.release();
+		asynchronousWriter.flush();
+
+		Assert.assertEquals("12345", writer.toString());
+		Assert.assertEquals(4, asynchronousWriter.getDroppedCharacters());
+
+		asynchronousWriter.close();
+
+	}
+
+	@Test
+	public void write_growBeyondCapacity() throws IOException {
+
+		BlockingWriter writer = new BlockingWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 8, 1, TimeUnit.SECONDS,
+				BackPressure.GROW);
+
+		asynchronousWriter.write("12345");
+		asynchronousWriter.write("6789");
+		asynchronousWriter.write("0123456789");
+
+		Assert.assertTrue(asynchronousWriter.getCapacity() >= 19);
+		Assert.assertEquals(19, asynchronousWriter.getMaximumQueueDepth());
+
+		writer.release();
+		asynchronousWriter.flush();
+
+		Assert.assertEquals("123456789" + "0123456789", writer.toString());
+		Assert.assertEquals(0, asynchronousWriter.getDroppedCharacters());
+
+		asynchronousWriter.close();
+
+	}
+
+	@Test
+	public void close_drainsBuffer() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 1024, 1,
+				TimeUnit.HOURS, BackPressure.BLOCK);
+
+		asynchronousWriter.writeLine(1, "foo");
+		asynchronousWriter.close();
+
+		Assert.assertEquals("  foo\n", writer.toString());
+
+	}
+
+	@Test(expected = IOException.class)
+	public void write_closed() throws IOException {
+
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(new StringWriter(), INDENTATION);
+
+		asynchronousWriter.close();
+		asynchronousWriter.write("foo");
+
+	}
+
+	@Test(expected = IOException.class)
+	public void flush_failedWriter() throws IOException {
+
+		Writer writer = new Writer() {
+
+			@Override
+			public void write(char[] buffer, int offset, int length) throws IOException {
+				throw new IOException();
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+
+		};
+		AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION);
+
+		asynchronousWriter.write("foo");
+		asynchronousWriter.flush();
+
+	}
+
+	@Test
+	public void writeLine_concurrentLinesNotInterleaved() throws Exception {
+
+		StringWriter writer = new StringWriter();
+		final AsynchronousWriter asynchronousWriter = new AsynchronousWriter(writer, INDENTATION, 256, 1,
+				TimeUnit.MILLISECONDS, BackPressure.BLOCK);
+		final AtomicReference<Exception> exception = new AtomicReference<Exception>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 8; i++) {
+			final String name = "thread" + i;
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < 500; j++) {
+							asynchronousWriter.writeLine(1, name);
+						}
+					} catch (Exception e) {
+						exception.set(e);
+					}
+				}
+
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		asynchronousWriter.close();
+
+		Assert.assertNull(exception.get());
+		String[] lines = writer.toString().split("\n");
+		Assert.assertEquals(8 * 500, lines.length);
+		for (String line : lines) {
+			Assert.assertTrue(line, line.matches("  thread[0-7]"));
+		}
+
+	}
+
+	private static final class BlockingWriter extends Writer {
+
+		private final StringWriter writer = new StringWriter();
+
+		private final Object monitor = new Object();
+
+		private boolean released;
+
+		@Override
+		public void write(char[] buffer, int offset, int length) throws IOException {
+			synchronized (monitor) {
+				while (!released) {
+					try {
+						monitor.wait();
+					} catch (InterruptedException e) {
+						throw new IOException(e.getMessage());
+					}
+				}
+			}
+			writer.write(buffer, offset, length);
+		}
+
+		public void release() {
+			synchronized (monitor) {
+				released = true;
+				monitor.notifyAll();
+			}
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public String toString() {
+			return writer.toString();
+		}
+
+	}
+
+}
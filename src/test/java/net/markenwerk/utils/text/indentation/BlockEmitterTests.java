@@ -0,0 +1,179 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class BlockEmitterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullAppendable() {
+
+		new BlockEmitter(null, INDENTATION);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new BlockEmitter(new StringBuilder(), null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeLevel() {
+
+		new BlockEmitter(new StringBuilder(), INDENTATION, -1);
+
+	}
+
+	@Test
+	public void line_firstLineWithoutLineBreak() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		BlockEmitter emitter = new BlockEmitter(builder, INDENTATION, 1);
+
+		emitter.line("foo").line("bar");
+
+		Assert.assertEquals("  foo\n  bar", builder.toString());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void line_null() throws IOException {
+
+		BlockEmitter emitter = new BlockEmitter(new StringBuilder(), INDENTATION);
+
+		emitter.line(null);
+
+	}
+
+	@Test
+	public void line_emptyLineNotIndented() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		BlockEmitter emitter = new BlockEmitter(builder, INDENTATION, 1);
+
+		emitter.line("foo").line("").line("bar");
+
+		Assert.assertEquals("  foo\n\n  bar", builder.toString());
+
+	}
+
+	@Test
+	public void blocks_stringBuilder() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		BlockEmitter emitter = new BlockEmitter(builder, INDENTATION);
+
+		emitter.beginBlock("a {").beginBlock("b {").line("c;").endBlock("}").endBlock("}");
+
+		Assert.assertEquals("a {\n  b {\n    c;\n  }\n}", builder.toString());
+
+	}
+
+	@Test
+	public void blocks_writer() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		BlockEmitter emitter = new BlockEmitter(writer, INDENTATION);
+
+		emitter.beginBlock("a {").beginBlock("b {").line("c;").endBlock("}").endBlock("}");
+
+		Assert.assertEquals("a {\n  b {\n    c;\n  }\n}", writer.toString());
+
+	}
+
+	@Test
+	public void blocks_otherAppendable() throws IOException {
+
+		CharBuffer buffer = CharBuffer.allocate(64);
+		BlockEmitter emitter = new BlockEmitter(buffer, INDENTATION);
+
+		emitter.beginBlock("a {").beginBlock("b {").line("c;").endBlock("}").endBlock("}");
+
+		buffer.flip();
+		Assert.assertEquals("a {\n  b {\n    c;\n  }\n}", buffer.toString());
+
+	}
+
+	@Test
+	public void beginBlock_increasesLevel() {
+
+		BlockEmitter emitter = new BlockEmitter(new StringBuilder(), INDENTATION);
+
+		emitter.beginBlock().beginBlock();
+
+		Assert.assertEquals(2, emitter.getLevel());
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void endBlock_levelZero() {
+
+		BlockEmitter emitter = new BlockEmitter(new StringBuilder(), INDENTATION);
+
+		emitter.endBlock();
+
+	}
+
+	@Test
+	public void lines_array() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		BlockEmitter emitter = new BlockEmitter(builder, INDENTATION, 1);
+
+		emitter.lines("a", "b", "c");
+
+		Assert.assertEquals("  a\n  b\n  c", builder.toString());
+
+	}
+
+	@Test
+	public void lines_iterable() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		BlockEmitter emitter = new BlockEmitter(writer, INDENTATION, 1);
+
+		emitter.lines(Arrays.asList("a", new StringBuilder("b"), CharBuffer.wrap("c")));
+
+		Assert.assertEquals("  a\n  b\n  c", writer.toString());
+
+	}
+
+	@Test
+	public void line_longLine() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		BlockEmitter emitter = new BlockEmitter(writer, INDENTATION, 3);
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			line.append('x');
+		}
+
+		emitter.line("a").line(line).line("b");
+
+		Assert.assertEquals("      a\n      " + line + "\n      b", writer.toString());
+
+	}
+
+	@Test
+	public void line_invisibleIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		BlockEmitter emitter = new BlockEmitter(builder, new InvisibleIndentation(LineBreak.UNIX));
+
+		emitter.beginBlock("a {").line("b;").line("").endBlock("}");
+
+		Assert.assertEquals("a {b;}", builder.toString());
+
+	}
+
+}
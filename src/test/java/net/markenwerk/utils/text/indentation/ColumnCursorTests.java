@@ -0,0 +1,143 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ColumnCursorTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullAppendable() {
+
+		new ColumnCursor(null, INDENTATION);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new ColumnCursor(new StringBuilder(), null);
+
+	}
+
+	@Test
+	public void append_tracksColumn() throws IOException {
+
+		ColumnCursor cursor = new ColumnCursor(new StringBuilder(), INDENTATION);
+
+		cursor.append("foo(");
+
+		Assert.assertEquals(4, cursor.getColumn());
+
+		cursor.append("bar\nbaz");
+
+		Assert.assertEquals(3, cursor.getColumn());
+
+		cursor.append('\r').append("ab\tc", 0, 3);
+
+		Assert.assertEquals(4, cursor.getColumn());
+
+	}
+
+	@Test
+	public void padToColumn_alignment() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		ColumnCursor cursor = new ColumnCursor(builder, INDENTATION);
+
+		cursor.append("call(");
+		int column = cursor.getColumn();
+		cursor.append("a,\n").padToColumn(column).append("b)");
+
+		Assert.assertEquals("call(a,\n     b)", builder.toString());
+
+	}
+
+	@Test
+	public void padToColumn_alreadyBeyond() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		ColumnCursor cursor = new ColumnCursor(builder, INDENTATION);
+
+		cursor.append("abc").padToColumn(2);
+
+		Assert.assertEquals("abc", builder.toString());
+		Assert.assertEquals(3, cursor.getColumn());
+
+	}
+
+	@Test
+	public void padToLevel_lineStart() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		ColumnCursor cursor = new ColumnCursor(builder, INDENTATION);
+
+		cursor.padToLevel(2, 3).append("x");
+
+		Assert.assertEquals("       x", builder.toString());
+		Assert.assertEquals(8, cursor.getColumn());
+
+	}
+
+	@Test
+	public void padToLevel_tabs() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		ColumnCursor cursor = new ColumnCursor(builder, new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX),
+				4);
+
+		cursor.padToLevel(2, 1).append("x\nab").padToLevel(2, 1).append("y");
+
+		Assert.assertEquals("\t\t x\nab       y", builder.toString());
+
+	}
+
+	@Test
+	public void padToColumn_writer() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		ColumnCursor cursor = new ColumnCursor(writer, INDENTATION);
+
+		cursor.append("a").padToColumn(5000).append("b");
+
+		Assert.assertEquals(5000, writer.toString().indexOf('b'));
+		Assert.assertEquals(5001, cursor.getColumn());
+
+	}
+
+	@Test
+	public void appendPadding_long() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		ColumnCursor.appendPadding(builder, 1, 10001);
+
+		Assert.assertEquals(10000, builder.length());
+		Assert.assertEquals("", builder.toString().trim());
+
+	}
+
+	@Test
+	public void appendPadding_appendable() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		ColumnCursor.appendPadding(new ColumnCursor(builder, INDENTATION), 0, 3);
+
+		Assert.assertEquals("   ", builder.toString());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void padToLevel_negativeOffset() throws IOException {
+
+		new ColumnCursor(new StringBuilder(), INDENTATION).padToLevel(0, -1);
+
+	}
+
+}
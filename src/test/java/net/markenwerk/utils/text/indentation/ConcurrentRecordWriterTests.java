@@ -0,0 +1,245 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentRecordWriterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullWriter() {
+
+		new ConcurrentRecordWriter(null, INDENTATION);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new ConcurrentRecordWriter(new StringWriter(), null);
+
+	}
+
+	@Test
+	public void commit_writesRecord() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, INDENTATION);
+
+		IndentedRecord record = recordWriter.newRecord();
+		record.line(0, "a {").line(1, "b;").indent(0).append('}').lineBreak(0);
+		record.commit();
+
+		Assert.assertEquals("a {\n  b;\n}\n", writer.toString());
+
+	}
+
+	@Test
+	public void commit_invisibleIndentation() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, Indentation.INVISIBLE);
+
+		IndentedRecord record = recordWriter.newRecord();
+		record.line(0, "a {").line(1, "b;").indent(0).append('}').lineBreak(0);
+		record.commit();
+
+		Assert.assertEquals("a {b;}", writer.toString());
+
+	}
+
+	@Test
+	public void commit_inOrder() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, INDENTATION);
+
+		IndentedRecord first = recordWriter.newRecord();
+		IndentedRecord second = recordWriter.newRecord();
+		second.append("b");
+		first.append("a");
+		first.commit();
+		second.commit();
+
+		Assert.assertEquals("ab", writer.toString());
+
+	}
+
+	@Test
+	public void newRecord_reused() throws IOException {
+
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(new StringWriter(), INDENTATION);
+
+		IndentedRecord record = recordWriter.newRecord();
+		record.append("foo");
+		record.commit();
+
+		IndentedRecord reusedRecord = recordWriter.newRecord();
+
+		Assert.assertSame(record, reusedRecord);
+		Assert.assertEquals(0, reusedRecord.length());
+
+	}
+
+	@Test
+	public void append_growsRecord() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, INDENTATION);
+		StringBuilder expected = new StringBuilder();
+
+		IndentedRecord record = recordWriter.newRecord();
+		for (int i = 0; i < 1000; i++) {
+			record.line(i % 5, new StringBuilder("line").append(i));
+			expected.append(INDENTATION.get(i % 5)).append("line").append(i).append('\n');
+		}
+		record.commit();
+
+		Assert.assertEquals(expected.toString(), writer.toString());
+
+	}
+
+	@Test(expected = IOException.class)
+	public void commit_closed() throws IOException {
+
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(new StringWriter(), INDENTATION);
+
+		IndentedRecord record = recordWriter.newRecord();
+		recordWriter.close();
+		record.commit();
+
+	}
+
+	@Test
+	public void commit_concurrentRecordsNotInterleaved() throws Exception {
+
+		StringWriter writer = new StringWriter();
+		final ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, INDENTATION);
+		final AtomicReference<Exception> exception = new AtomicReference<Exception>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 8; i++) {
+			final String name = Integer.toString(i);
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < 500; j++) {
+							IndentedRecord record = recordWriter.newRecord();
+							record.line(0, name + " {");
+							for (int k = 0; k < 5; k++) {
+								record.line(1, name);
+							}
+							record.line(0, "}");
+							record.commit();
+						}
+					} catch (Exception e) {
+						exception.set(e);
+					}
+				}
+
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		recordWriter.flush();
+
+		Assert.assertNull(exception.get());
+		String[] lines = writer.toString().split("\n");
+		Assert.assertEquals(8 * 500 * 7, lines.length);
+		for (int i = 0; i < lines.length; i += 7) {
+			String name = lines[i].substring(0, lines[i].length() - 2);
+			for (int k = 1; k <= 5; k++) {
+				Assert.assertEquals("  " + name, lines[i + k]);
+			}
+			Assert.assertEquals("}", lines[i + 6]);
+		}
+
+	}
+
+	@Test
+	public void commit_concurrentRecordsWrittenOnReturn() throws Exception {
+
+		StringWriter writer = new StringWriter();
+		final ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(writer, INDENTATION);
+		final AtomicReference<Exception> exception = new AtomicReference<Exception>();
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (int j = 0; j < 500; j++) {
+							recordWriter.newRecord().line(0, "a").commit();
+						}
+					} catch (Exception e) {
+						exception.set(e);
+					}
+				}
+
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertNull(exception.get());
+		Assert.assertEquals(8 * 500 * 2, writer.toString().length());
+
+	}
+
+	@Test
+	public void commit_afterFailedWrite() throws IOException {
+
+		final IOException failure = new IOException();
+		ConcurrentRecordWriter recordWriter = new ConcurrentRecordWriter(new Writer() {
+
+			@Override
+			public void write(char[] chars, int offset, int length) throws IOException {
+				throw failure;
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+
+		}, INDENTATION);
+
+		try {
+			recordWriter.newRecord().append("a").commit();
+			Assert.fail();
+		} catch (IOException e) {
+			Assert.assertSame(failure, e);
+		}
+
+		try {
+			recordWriter.newRecord().append("b").commit();
+			Assert.fail();
+		} catch (IOException e) {
+			Assert.assertSame(failure, e.getCause());
+		}
+
+	}
+
+}
@@ -0,0 +1,201 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DedenterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new Dedenter(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeSpillThreshold() {
+
+		new Dedenter(INDENTATION, -1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dedent_nullInput() throws IOException {
+
+		new Dedenter(INDENTATION).dedent((CharSequence) null, new StringBuilder(), 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dedent_nullReader() throws IOException {
+
+		new Dedenter(INDENTATION).dedent((Reader) null, new StringWriter(), 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dedent_negativeLevel() throws IOException {
+
+		new Dedenter(INDENTATION).dedent("", new StringBuilder(), -1);
+
+	}
+
+	@Test
+	public void dedent_commonIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("    a {\n      b;\n    }", builder, 0);
+
+		Assert.assertEquals("a {\n  b;\n}", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_withLevel() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("    a {\n      b;\n    }", builder, 2);
+
+		Assert.assertEquals("    a {\n      b;\n    }", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_blankLinesIgnored() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("    a\n\n  \n      b\n", builder, 1);
+
+		Assert.assertEquals("  a\n\n\n    b\n", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_mixedWhitespace() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("\t a\n\t\tb\n", builder, 0);
+
+		Assert.assertEquals(" a\n\tb\n", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_windowsLineBreaks() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("  a\r\n    b\r\n  \r\n  c\r", builder, 0);
+
+		Assert.assertEquals("a\n  b\n\nc\r", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_lineBreakOfIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.WINDOWS);
+
+		new Dedenter(indentation).dedent("  a\n    b", builder, 1);
+
+		Assert.assertEquals("\ta\r\n\t  b", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_noIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent("a\n  b", builder, 0);
+
+		Assert.assertEquals("a\n  b", builder.toString());
+
+	}
+
+	@Test
+	public void dedent_otherAppendable() throws IOException {
+
+		CharBuffer buffer = CharBuffer.allocate(64);
+
+		new Dedenter(INDENTATION).dedent("  a\n    b", buffer, 0);
+
+		buffer.flip();
+		Assert.assertEquals("a\n  b", buffer.toString());
+
+	}
+
+	@Test
+	public void dedent_reader() throws IOException {
+
+		StringWriter writer = new StringWriter();
+
+		new Dedenter(INDENTATION).dedent(new StringReader("    a {\n      b;\n    }\n"), writer, 0);
+
+		Assert.assertEquals("a {\n  b;\n}\n", writer.toString());
+
+	}
+
+	@Test
+	public void dedent_readerSpilled() throws IOException {
+
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append("      a").append(i).append("\r\n        b\n");
+			expected.append("  a").append(i).append("\n    b\n");
+		}
+		StringWriter writer = new StringWriter();
+
+		new Dedenter(INDENTATION, 1000).dedent(new StringReader(input.toString()), writer, 1);
+
+		Assert.assertEquals(expected.toString(), writer.toString());
+
+	}
+
+	@Test
+	public void dedent_largeInput() throws IOException {
+
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append("    a\r\n      b\r\n");
+			expected.append("a\n  b\n");
+		}
+		StringBuilder builder = new StringBuilder();
+
+		new Dedenter(INDENTATION).dedent(input, builder, 0);
+
+		Assert.assertEquals(expected.toString(), builder.toString());
+
+	}
+
+	@Test
+	public void dedent_streams() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		new Dedenter(INDENTATION).dedent(new ByteArrayInputStream("  ä\n    ö".getBytes("UTF-8")),
+				outputStream, IndentationBuffer.CHARSET, 0);
+
+		Assert.assertEquals("ä\n  ö", new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+}
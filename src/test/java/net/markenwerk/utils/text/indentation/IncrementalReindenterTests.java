@@ -0,0 +1,125 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IncrementalReindenterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new IncrementalReindenter(null);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void reindent_invalidRange() {
+
+		new IncrementalReindenter(INDENTATION).reindent("foo", 2, 4);
+
+	}
+
+	@Test
+	public void reindent_insertedLine() {
+
+		String document = "a {\n  b;\nc;\n  d;\n}\ne;";
+		int start = document.indexOf("c;");
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, start, start + 3);
+
+		Assert.assertEquals(1, edits.size());
+		Assert.assertEquals("a {\n  b;\n  c;\n  d;\n}\ne;", apply(document, edits));
+
+	}
+
+	@Test
+	public void reindent_insertedBlock() {
+
+		String document = "a {\n  b {\n  c;\n  d;\n  }\n}\ne;";
+		int start = document.indexOf("b {") + 2;
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, start, start + 1);
+
+		Assert.assertEquals("a {\n  b {\n    c;\n    d;\n  }\n}\ne;", apply(document, edits));
+		Assert.assertEquals(2, edits.size());
+
+	}
+
+	@Test
+	public void reindent_stopsWhenStable() {
+
+		StringBuilder builder = new StringBuilder("a {\nb;\n");
+		for (int i = 0; i < 1000; i++) {
+			builder.append("  x;\n");
+		}
+		builder.append("}");
+		String document = builder.toString();
+		int start = document.indexOf("b;");
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, start, start + 2);
+
+		Assert.assertEquals(1, edits.size());
+		Assert.assertEquals(start, edits.get(0).getStart());
+		Assert.assertEquals("  ", edits.get(0).getReplacement());
+
+	}
+
+	@Test
+	public void reindent_anchorWithTabs() {
+
+		String document = "\t\ta(\nb);";
+		int start = document.indexOf("b");
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION, 1).reindent(document, start, start);
+
+		Assert.assertEquals("\t\ta(\n    b);", apply(document, edits));
+
+	}
+
+	@Test
+	public void reindent_closingBracket() {
+
+		String document = "a {\r\n  b;\r\n  }\r\nc;";
+		int start = document.indexOf("}");
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, start, start + 1);
+
+		Assert.assertEquals("a {\r\n  b;\r\n}\r\nc;", apply(document, edits));
+
+	}
+
+	@Test
+	public void reindent_ignoresQuotedBrackets() {
+
+		String document = "a(\"{\\\"(\");\nb;";
+		int start = document.indexOf("b");
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, start, start);
+
+		Assert.assertTrue(edits.isEmpty());
+
+	}
+
+	@Test
+	public void reindent_blankLinesInRange() {
+
+		String document = "a {\n   \n    b;\n}";
+
+		List<TextEdit> edits = new IncrementalReindenter(INDENTATION).reindent(document, 4, 12);
+
+		Assert.assertEquals("a {\n\n  b;\n}", apply(document, edits));
+
+	}
+
+	private static String apply(String document, List<TextEdit> edits) {
+		StringBuilder builder = new StringBuilder(document);
+		TextEdit.apply(builder, edits);
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,167 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndentationDetectorTests {
+
+	private static final String SPACES = "a {\n  b {\n    c;\n\n    d;\n  }\n}\n";
+
+	private static final String TABS = "a {\r\n\tb {\r\n\t\tc;\r\n\t}\r\n}\r\n";
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveSampleSize() {
+
+		new IndentationDetector(0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void detect_nullCharSequence() {
+
+		new IndentationDetector().detect((CharSequence) null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void detect_nullReader() throws IOException {
+
+		new IndentationDetector().detect((Reader) null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void detect_nullByteBuffer() {
+
+		new IndentationDetector().detect((ByteBuffer) null);
+
+	}
+
+	@Test
+	public void detect_spaces() {
+
+		DetectedIndentation detected = new IndentationDetector().detect(SPACES);
+
+		Assert.assertEquals(Whitespace.SPACE, detected.getWhitespace());
+		Assert.assertEquals(2, detected.getLength());
+		Assert.assertEquals(LineBreak.UNIX, detected.getLineBreak());
+		Assert.assertEquals(1, detected.getWhitespaceConfidence(), 0);
+		Assert.assertEquals(1, detected.getLengthConfidence(), 0);
+		Assert.assertEquals(1, detected.getLineBreakConfidence(), 0);
+
+	}
+
+	@Test
+	public void detect_tabs() {
+
+		DetectedIndentation detected = new IndentationDetector().detect(TABS);
+
+		Assert.assertEquals(Whitespace.TAB, detected.getWhitespace());
+		Assert.assertEquals(1, detected.getLength());
+		Assert.assertEquals(LineBreak.WINDOWS, detected.getLineBreak());
+
+	}
+
+	@Test
+	public void detect_mostFrequentLength() {
+
+		String input = "a\n    b\n        c\n    d\n      e\nf\n";
+
+		DetectedIndentation detected = new IndentationDetector().detect(input);
+
+		Assert.assertEquals(4, detected.getLength());
+		Assert.assertEquals(0.6, detected.getLengthConfidence(), 0.0001);
+
+	}
+
+	@Test
+	public void detect_noIndentation() {
+
+		DetectedIndentation detected = new IndentationDetector().detect("foo bar");
+
+		Assert.assertEquals(Whitespace.TAB, detected.getWhitespace());
+		Assert.assertEquals(1, detected.getLength());
+		Assert.assertEquals(LineBreak.SYSTEM, detected.getLineBreak());
+		Assert.assertEquals(0, detected.getWhitespaceConfidence(), 0);
+		Assert.assertEquals(0, detected.getLineBreakConfidence(), 0);
+
+	}
+
+	@Test
+	public void detect_stringBuilder() {
+
+		DetectedIndentation detected = new IndentationDetector().detect(new StringBuilder(SPACES));
+
+		Assert.assertEquals(Whitespace.SPACE, detected.getWhitespace());
+		Assert.assertEquals(2, detected.getLength());
+
+	}
+
+	@Test
+	public void detect_reader() throws IOException {
+
+		DetectedIndentation detected = new IndentationDetector().detect(new StringReader(TABS));
+
+		Assert.assertEquals(Whitespace.TAB, detected.getWhitespace());
+		Assert.assertEquals(LineBreak.WINDOWS, detected.getLineBreak());
+
+	}
+
+	@Test
+	public void detect_byteBuffer() {
+
+		ByteBuffer buffer = ByteBuffer.wrap(SPACES.getBytes(IndentationBuffer.CHARSET));
+
+		DetectedIndentation detected = new IndentationDetector().detect(buffer);
+
+		Assert.assertEquals(Whitespace.SPACE, detected.getWhitespace());
+		Assert.assertEquals(2, detected.getLength());
+		Assert.assertEquals(LineBreak.UNIX, detected.getLineBreak());
+		Assert.assertEquals(0, buffer.position());
+
+	}
+
+	@Test
+	public void detect_sampleSize() throws IOException {
+
+		String input = TABS + SPACES + SPACES + SPACES;
+
+		DetectedIndentation detected = new IndentationDetector(TABS.length()).detect(new StringReader(input));
+
+		Assert.assertEquals(Whitespace.TAB, detected.getWhitespace());
+		Assert.assertEquals(LineBreak.WINDOWS, detected.getLineBreak());
+
+	}
+
+	@Test
+	public void detect_largeInput() {
+
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			builder.append(SPACES);
+		}
+
+		DetectedIndentation detected = new IndentationDetector().detect(builder);
+
+		Assert.assertEquals(Whitespace.SPACE, detected.getWhitespace());
+		Assert.assertEquals(2, detected.getLength());
+		Assert.assertEquals(1, detected.getLengthConfidence(), 0);
+
+	}
+
+	@Test
+	public void getIndentation_matchesDetection() {
+
+		Indentation indentation = new IndentationDetector().detect(TABS).getIndentation();
+
+		Assert.assertEquals("\r\n\t\t", indentation.get(2, true));
+
+	}
+
+}
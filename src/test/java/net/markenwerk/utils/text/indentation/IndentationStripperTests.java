@@ -0,0 +1,135 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndentationStripperTests {
+
+	private static final String INDENTED = "a {\n  b;\r\n\t\tc;\r  \n  d ;\n}";
+
+	@Test
+	public void strip_keepLineBreaks() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new IndentationStripper(false).strip(INDENTED, builder);
+
+		Assert.assertEquals("a {\nb;\r\nc;\r\nd ;\n}", builder.toString());
+
+	}
+
+	@Test
+	public void strip_removeLineBreaks() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new IndentationStripper(true).strip(INDENTED, builder);
+
+		Assert.assertEquals("a {b;c;d ;}", builder.toString());
+
+	}
+
+	@Test
+	public void strip_charBuffer() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+		char[] chars = ("xx" + INDENTED + "yy").toCharArray();
+
+		new IndentationStripper(false).strip(CharBuffer.wrap(chars, 2, INDENTED.length()), builder);
+
+		Assert.assertEquals("a {\nb;\r\nc;\r\nd ;\n}", builder.toString());
+
+	}
+
+	@Test
+	public void strip_singleCharacterChunks() throws IOException {
+
+		StringWriter writer = new StringWriter();
+
+		new IndentationStripper(false).strip(new SingleCharacterReader(INDENTED), writer);
+
+		Assert.assertEquals("a {\nb;\r\nc;\r\nd ;\n}", writer.toString());
+
+	}
+
+	@Test
+	public void strip_reindentedText() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		IndentingWriter indentingWriter = new IndentingWriter(writer, new WhitespaceIndentation(Whitespace.SPACE, 2,
+				LineBreak.UNIX), 2);
+		indentingWriter.write("x\ny\n");
+		indentingWriter.flush();
+		StringBuilder builder = new StringBuilder();
+
+		new IndentationStripper(false).strip(writer.toString(), builder);
+
+		Assert.assertTrue(writer.toString().startsWith("    x"));
+		Assert.assertEquals("x\ny\n", builder.toString());
+
+	}
+
+	@Test
+	public void strip_bytes() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		new IndentationStripper(true).strip(new ByteArrayInputStream(" ä\r\n\t€".getBytes("UTF-8")),
+				outputStream);
+
+		Assert.assertEquals("ä€", new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+	@Test
+	public void strip_noEmptyWrites() throws IOException {
+
+		StringWriter writer = new NonEmptyStringWriter();
+		ByteArrayOutputStream outputStream = new NonEmptyByteArrayOutputStream();
+
+		new IndentationStripper(true).strip(new StringReader(INDENTED + "\n"), writer);
+		new IndentationStripper(true).strip(new ByteArrayInputStream((INDENTED + "\n").getBytes("UTF-8")),
+				outputStream);
+
+		Assert.assertEquals("a {b;c;d ;}", writer.toString());
+		Assert.assertEquals("a {b;c;d ;}", new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void strip_nullReader() throws IOException {
+
+		new IndentationStripper(false).strip((Reader) null, new StringWriter());
+
+	}
+
+	private static final class NonEmptyStringWriter extends StringWriter {
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			Assert.assertTrue(length > 0);
+			super.write(buffer, offset, length);
+		}
+
+	}
+
+	private static final class NonEmptyByteArrayOutputStream extends ByteArrayOutputStream {
+
+		@Override
+		public synchronized void write(byte[] buffer, int offset, int length) {
+			Assert.assertTrue(length > 0);
+			super.write(buffer, offset, length);
+		}
+
+	}
+
+}
@@ -0,0 +1,109 @@
+package net.markenwerk.utils.text.indentation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndentedLineJoinerTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new IndentedLineJoiner(null, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeLevel() {
+
+		new IndentedLineJoiner(INDENTATION, -1);
+
+	}
+
+	@Test
+	public void toString_empty() {
+
+		IndentedLineJoiner joiner = new IndentedLineJoiner(INDENTATION, 1);
+
+		Assert.assertEquals("", joiner.toString());
+		Assert.assertEquals(0, joiner.length());
+
+	}
+
+	@Test
+	public void toString_lines() {
+
+		IndentedLineJoiner joiner = new IndentedLineJoiner(INDENTATION, 1);
+
+		joiner.add("a").add(new StringBuilder("b")).add("");
+
+		Assert.assertEquals("  a\n  b\n  ", joiner.toString());
+		Assert.assertEquals(joiner.toString().length(), joiner.length());
+		Assert.assertEquals(3, joiner.getLineCount());
+
+	}
+
+	@Test
+	public void toString_invisibleIndentation() {
+
+		IndentedLineJoiner joiner = new IndentedLineJoiner(Indentation.INVISIBLE, 1);
+
+		joiner.add("a").add("b");
+
+		Assert.assertEquals("ab", joiner.toString());
+
+	}
+
+	@Test
+	public void combine_preservesOrder() {
+
+		IndentedLineJoiner first = new IndentedLineJoiner(INDENTATION, 0);
+		IndentedLineJoiner second = new IndentedLineJoiner(INDENTATION, 0);
+		IndentedLineJoiner third = new IndentedLineJoiner(INDENTATION, 0);
+
+		first.add("a");
+		second.add("b").add("c");
+		third.add("d");
+
+		Assert.assertEquals("a\nb\nc\nd", first.combine(second.combine(third)).toString());
+		Assert.assertEquals(4, first.getLineCount());
+
+	}
+
+	@Test
+	public void combine_manyLines() {
+
+		IndentedLineJoiner joiner = new IndentedLineJoiner(INDENTATION, 2);
+		StringBuilder expected = new StringBuilder();
+
+		for (int i = 0; i < 100; i++) {
+			IndentedLineJoiner partial = new IndentedLineJoiner(INDENTATION, 2);
+			for (int j = 0; j < 10; j++) {
+				partial.add("line" + i + "-" + j);
+				expected.append(0 == expected.length() ? "" : "\n").append("    line").append(i).append('-')
+						.append(j);
+			}
+			joiner.combine(partial);
+		}
+
+		Assert.assertEquals(expected.toString(), joiner.toString());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void add_null() {
+
+		new IndentedLineJoiner(INDENTATION, 0).add(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void combine_null() {
+
+		new IndentedLineJoiner(INDENTATION, 0).combine(null);
+
+	}
+
+}
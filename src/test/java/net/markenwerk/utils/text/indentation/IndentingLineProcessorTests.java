@@ -0,0 +1,387 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import net.markenwerk.utils.text.indentation.IndentationFlow.Publisher;
+import net.markenwerk.utils.text.indentation.IndentationFlow.Subscriber;
+import net.markenwerk.utils.text.indentation.IndentationFlow.Subscription;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndentingLineProcessorTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new IndentingLineProcessor(null, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeLevel() {
+
+		new IndentingLineProcessor(INDENTATION, -1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveLinesPerChunk() {
+
+		new IndentingLineProcessor(INDENTATION, 0, 0);
+
+	}
+
+	@Test
+	public void process_unboundedDemand() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 1, 2);
+		RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+		processor.subscribe(subscriber);
+		new LinePublisher("a", "b", "c").subscribe(processor);
+
+		Assert.assertEquals(Arrays.asList("  a\n  b\n", "  c\n"), subscriber.chunks);
+		Assert.assertTrue(subscriber.completed);
+		Assert.assertNull(subscriber.throwable);
+
+	}
+
+	@Test
+	public void process_asynchronousPublisher() throws InterruptedException {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 1);
+		RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+		AsynchronousLinePublisher publisher = new AsynchronousLinePublisher("a", "b", "c");
+
+		processor.subscribe(subscriber);
+		publisher.subscribe(processor);
+		publisher.thread.join();
+
+		Assert.assertEquals(Arrays.asList("  a\n", "  b\n", "  c\n"), subscriber.chunks);
+		Assert.assertTrue(subscriber.completed);
+		Assert.assertNull(subscriber.throwable);
+
+	}
+
+	@Test
+	public void process_boundedDemand() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 2, 2);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		LinePublisher publisher = new LinePublisher("a", "b", "c", "d", "e");
+
+		processor.subscribe(subscriber);
+		publisher.subscribe(processor);
+
+		Assert.assertEquals(Arrays.asList("    a\n"), subscriber.chunks);
+		Assert.assertEquals(1, publisher.requested);
+
+		subscriber.subscription.request(2);
+
+		Assert.assertEquals(Arrays.asList("    a\n", "    b\n    c\n", "    d\n"), subscriber.chunks);
+		Assert.assertEquals(4, publisher.requested);
+		Assert.assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(1);
+
+		Assert.assertEquals(Arrays.asList("    a\n", "    b\n    c\n", "    d\n", "    e\n"), subscriber.chunks);
+		Assert.assertTrue(subscriber.completed);
+
+	}
+
+	@Test
+	public void process_partialChunk() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 1, 64);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		final List<Long> requests = new ArrayList<Long>();
+
+		processor.subscribe(subscriber);
+		processor.onSubscribe(new Subscription() {
+
+			@Override
+			public void request(long n) {
+				requests.add(n);
+			}
+
+			@Override
+			public void cancel() {
+			}
+
+		});
+		processor.onNext("a");
+
+		Assert.assertEquals(Arrays.asList("  a\n"), subscriber.chunks);
+		Assert.assertEquals(Arrays.asList(1L), requests);
+
+		subscriber.subscription.request(2);
+		processor.onNext("b");
+
+		Assert.assertEquals(Arrays.asList("  a\n", "  b\n"), subscriber.chunks);
+		Assert.assertEquals(Arrays.asList(1L, 2L), requests);
+		Assert.assertFalse(subscriber.completed);
+
+	}
+
+	@Test
+	public void process_subscribeAfterPublisher() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 0);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+
+		new LinePublisher(new StringBuilder("a"), "b").subscribe(processor);
+		processor.subscribe(subscriber);
+
+		Assert.assertEquals(Arrays.asList("a\n"), subscriber.chunks);
+		Assert.assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(1);
+
+		Assert.assertEquals(Arrays.asList("a\n", "b\n"), subscriber.chunks);
+		Assert.assertTrue(subscriber.completed);
+
+	}
+
+	@Test
+	public void process_invisibleIndentation() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(Indentation.INVISIBLE, 3);
+		RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+
+		processor.subscribe(subscriber);
+		new LinePublisher("a", "b").subscribe(processor);
+
+		Assert.assertEquals(Arrays.asList("ab"), subscriber.chunks);
+
+	}
+
+	@Test
+	public void process_error() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 0);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		RuntimeException exception = new RuntimeException();
+
+		processor.subscribe(subscriber);
+		processor.onSubscribe(new Subscription() {
+
+			@Override
+			public void request(long n) {
+			}
+
+			@Override
+			public void cancel() {
+			}
+
+		});
+		processor.onNext("a");
+		processor.onError(exception);
+
+		Assert.assertEquals(Arrays.asList("a\n"), subscriber.chunks);
+		Assert.assertSame(exception, subscriber.throwable);
+		Assert.assertFalse(subscriber.completed);
+
+	}
+
+	@Test
+	public void process_nonPositiveRequest() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 0);
+		RecordingSubscriber subscriber = new RecordingSubscriber(0);
+		LinePublisher publisher = new LinePublisher("a");
+
+		processor.subscribe(subscriber);
+		publisher.subscribe(processor);
+		subscriber.subscription.request(0);
+
+		Assert.assertTrue(subscriber.throwable instanceof IllegalArgumentException);
+		Assert.assertTrue(publisher.cancelled);
+
+	}
+
+	@Test
+	public void process_cancel() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 0, 1);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		LinePublisher publisher = new LinePublisher("a", "b");
+
+		processor.subscribe(subscriber);
+		publisher.subscribe(processor);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+
+		Assert.assertEquals(Arrays.asList("a\n"), subscriber.chunks);
+		Assert.assertTrue(publisher.cancelled);
+		Assert.assertFalse(subscriber.completed);
+
+	}
+
+	@Test
+	public void subscribe_secondSubscriber() {
+
+		IndentingLineProcessor processor = new IndentingLineProcessor(INDENTATION, 0);
+		RecordingSubscriber subscriber = new RecordingSubscriber(1);
+
+		processor.subscribe(new RecordingSubscriber(1));
+		processor.subscribe(subscriber);
+
+		Assert.assertTrue(subscriber.throwable instanceof IllegalStateException);
+
+	}
+
+	private static final class LinePublisher implements Publisher<CharSequence> {
+
+		private final List<CharSequence> lines;
+
+		private long requested;
+
+		private boolean cancelled;
+
+		public LinePublisher(CharSequence... lines) {
+			this.lines = Arrays.asList(lines);
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super CharSequence> subscriber) {
+			subscriber.onSubscribe(new LineSubscription(subscriber));
+		}
+
+		private final class LineSubscription implements Subscription {
+
+			private final Subscriber<? super CharSequence> subscriber;
+
+			private int index;
+
+			private long pending;
+
+			private boolean emitting;
+
+			public LineSubscription(Subscriber<? super CharSequence> subscriber) {
+				this.subscriber = subscriber;
+			}
+
+			@Override
+			public void request(long n) {
+				requested += n;
+				pending = Long.MAX_VALUE - pending <= n ? Long.MAX_VALUE : pending + n;
+				if (emitting) {
+					return;
+				}
+				emitting = true;
+				while (!cancelled && 0 != pending && index < lines.size()) {
+					pending--;
+					subscriber.onNext(lines.get(index++));
+				}
+				if (!cancelled && index == lines.size()) {
+					index++;
+					subscriber.onComplete();
+				}
+				emitting = false;
+			}
+
+			@Override
+			public void cancel() {
+				cancelled = true;
+			}
+
+		}
+
+	}
+
+	private static final class AsynchronousLinePublisher implements Publisher<CharSequence> {
+
+		private final Semaphore permits = new Semaphore(0);
+
+		private final List<CharSequence> lines;
+
+		private Thread thread;
+
+		public AsynchronousLinePublisher(CharSequence... lines) {
+			this.lines = Arrays.asList(lines);
+		}
+
+		@Override
+		public void subscribe(final Subscriber<? super CharSequence> subscriber) {
+			subscriber.onSubscribe(new Subscription() {
+
+				@Override
+				public void request(long n) {
+					permits.release((int) Math.min(n, lines.size()));
+				}
+
+				@Override
+				public void cancel() {
+				}
+
+			});
+			thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						for (CharSequence line : lines) {
+							permits.acquire();
+							subscriber.onNext(line);
+						}
+						subscriber.onComplete();
+					} catch (InterruptedException e) {
+						subscriber.onError(e);
+					}
+				}
+
+			});
+			thread.start();
+		}
+
+	}
+
+	private static final class RecordingSubscriber implements Subscriber<CharSequence> {
+
+		private final List<String> chunks = new ArrayList<String>();
+
+		private final long initialRequest;
+
+		private Subscription subscription;
+
+		private boolean completed;
+
+		private Throwable throwable;
+
+		public RecordingSubscriber(long initialRequest) {
+			this.initialRequest = initialRequest;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			if (0 != initialRequest) {
+				subscription.request(initialRequest);
+			}
+		}
+
+		@Override
+		public void onNext(CharSequence chunk) {
+			chunks.add(chunk.toString());
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.throwable = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+
+	}
+
+}
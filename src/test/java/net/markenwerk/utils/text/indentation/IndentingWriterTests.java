@@ -0,0 +1,169 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class IndentingWriterTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullWriter() {
+
+		new IndentingWriter(null, Indentation.DEFAULT);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new IndentingWriter(new StringWriter(), null);
+
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void outdent_levelZero() {
+
+		IndentingWriter writer = new IndentingWriter(new StringWriter(), Indentation.DEFAULT);
+
+		writer.outdent();
+
+	}
+
+	@Test
+	public void write_levelZero() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1));
+
+		writer.write("foo\nbar\n");
+
+		Assert.assertEquals("foo\nbar\n", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_string() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		writer.write("foo\nbar\r\nbaz");
+
+		Assert.assertEquals("\tfoo\n\tbar\r\n\tbaz", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_stringRange() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		writer.write("xfoo\nbar\nx", 1, 8);
+
+		Assert.assertEquals("\tfoo\n\tbar\n", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_chars() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.SPACE, 2), 2);
+
+		writer.write("foo\nbar\n".toCharArray());
+
+		Assert.assertEquals("    foo\n    bar\n", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_singleChars() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		for (char c : "a\nb".toCharArray()) {
+			writer.write(c);
+		}
+
+		Assert.assertEquals("\ta\n\tb", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_emptyLinesNotIndented() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		writer.write("foo\n\r\n\nbar");
+
+		Assert.assertEquals("\tfoo\n\r\n\n\tbar", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_levelChangeAfterLineBreak() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1));
+
+		writer.write("{\n");
+		writer.indent();
+		writer.write("foo\n");
+		writer.outdent();
+		writer.write("}");
+
+		Assert.assertEquals("{\n\tfoo\n}", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_lineSplitAcrossCalls() throws IOException {
+
+		StringWriter stringWriter = new StringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		writer.write("fo");
+		writer.write("o\nb");
+		writer.write("ar");
+
+		Assert.assertEquals("\tfoo\n\tbar", stringWriter.toString());
+
+	}
+
+	@Test
+	public void write_noEmptyWrites() throws IOException {
+
+		StringWriter stringWriter = new NonEmptyStringWriter();
+		IndentingWriter writer = new IndentingWriter(stringWriter, new WhitespaceIndentation(Whitespace.TAB, 1), 1);
+
+		writer.write("foo\n");
+		writer.write("\nbar\n".toCharArray());
+		writer.write("");
+
+		Assert.assertEquals("\tfoo\n\n\tbar\n", stringWriter.toString());
+
+	}
+
+	private static final class NonEmptyStringWriter extends StringWriter {
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			Assert.assertTrue(length > 0);
+			super.write(buffer, offset, length);
+		}
+
+		@Override
+		public void write(String string, int offset, int length) {
+			Assert.assertTrue(length > 0);
+			super.write(string, offset, length);
+		}
+
+	}
+
+}
@@ -1,6 +1,8 @@
 package net.markenwerk.utils.text.indentation;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -131,4 +133,94 @@ public class InvisibleIndentationTests {
 
 	}
 
+	@Test
+	public void writeTo_invisibleLineBreakAtLevelNotZero() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		indentation.writeTo(outputStream, 1, true);
+
+		Assert.assertEquals(0, outputStream.size());
+
+	}
+
+	@Test
+	public void writeTo_byteArray_invisibleLineBreakAtLevelNotZero() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		int length = indentation.writeTo(new byte[0], 0, 1, true);
+
+		Assert.assertEquals(0, length);
+
+	}
+
+	@Test
+	public void getCharSequence_invisibleLineBreakAtLevelNotZero() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		CharSequence indentationSequence = indentation.getCharSequence(1, true);
+
+		Assert.assertEquals(0, indentationSequence.length());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeTo_negativeLevel() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		indentation.writeTo(new ByteArrayOutputStream(), -1, true);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeTo_byteBuffer_negativeLevel() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		indentation.writeTo(ByteBuffer.allocate(0), -1, true);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeTo_byteArray_negativeLevel() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		indentation.writeTo(new byte[0], 0, -1, true);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void writeTo_byteArray_negativeOffset() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		indentation.writeTo(new byte[1], -1, 0, true);
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void writeTo_byteArray_offsetAfterEnd() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		indentation.writeTo(new byte[1], 2, 0, true);
+
+	}
+
+	@Test
+	public void writeTo_byteArray_offsetAtEnd() {
+
+		Indentation indentation = new InvisibleIndentation(LineBreak.UNIX);
+
+		int length = indentation.writeTo(new byte[1], 1, 0, true);
+
+		Assert.assertEquals(0, length);
+
+	}
+
 }
@@ -0,0 +1,118 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class JsonReformatterTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	private static final String COMPACT = "{\"a\":[1,2,{\"b\":\"x, y: [z]\"}],\"c\":{},\"d\":[ ],\"e\":\"\\\"{\\\\\",\"f\":true}";
+
+	private static final String PRETTY = "{\n  \"a\": [\n    1,\n    2,\n    {\n      \"b\": \"x, y: [z]\"\n    }\n  ],\n  \"c\": {},\n  \"d\": [],\n  \"e\": \"\\\"{\\\\\",\n  \"f\": true\n}";
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new JsonReformatter(null);
+
+	}
+
+	@Test
+	public void reformat_compact() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(INDENTATION).reformat(COMPACT, builder);
+
+		Assert.assertEquals(PRETTY, builder.toString());
+
+	}
+
+	@Test
+	public void reformat_badlyFormatted() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(INDENTATION).reformat("\r\n{ \"a\" :\t[ 1 ,\n2,{ \"b\":\"x, y: [z]\"} ] , \"c\" : {\n}, "
+				+ "\"d\":[\n ],\"e\" : \"\\\"{\\\\\" ,\"f\":  true } ", builder);
+
+		Assert.assertEquals(PRETTY, builder.toString());
+
+	}
+
+	@Test
+	public void reformat_minify() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(Indentation.INVISIBLE).reformat(PRETTY, builder);
+
+		Assert.assertEquals(COMPACT.replace("[ ]", "[]"), builder.toString());
+
+	}
+
+	@Test
+	public void reformat_windowsLineBreak() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.WINDOWS)).reformat("[1,[]]",
+				builder);
+
+		Assert.assertEquals("[\r\n\t1,\r\n\t[]\r\n]", builder.toString());
+
+	}
+
+	@Test
+	public void reformat_singleCharacterChunks() throws IOException {
+
+		StringWriter writer = new StringWriter();
+
+		new JsonReformatter(INDENTATION).reformat(new SingleCharacterReader(COMPACT), writer);
+
+		Assert.assertEquals(PRETTY, writer.toString());
+
+	}
+
+	@Test
+	public void reformat_bytes() throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		String json = "{\"ä\":\"€\"}";
+
+		new JsonReformatter(INDENTATION).reformat(new ByteArrayInputStream(json.getBytes("UTF-8")), outputStream);
+
+		Assert.assertEquals("{\n  \"ä\": \"€\"\n}", new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+	@Test
+	public void reformat_scalar() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(INDENTATION).reformat(" 42 ", builder);
+
+		Assert.assertEquals("42", builder.toString());
+
+	}
+
+	@Test
+	public void reformat_empty() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new JsonReformatter(INDENTATION).reformat("", builder);
+
+		Assert.assertEquals("", builder.toString());
+
+	}
+
+}
@@ -0,0 +1,250 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class MeteredIndentationTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new MeteredIndentation(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeLevels() {
+
+		new MeteredIndentation(Indentation.DEFAULT, -1, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeSampleInterval() {
+
+		new MeteredIndentation(Indentation.DEFAULT, 0, -1);
+
+	}
+
+	@Test
+	public void get_delegates() {
+
+		Indentation delegate = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+		Indentation indentation = new MeteredIndentation(delegate);
+
+		Assert.assertEquals(delegate.get(3, true), indentation.get(3, true));
+		Assert.assertEquals(delegate.isVisible(), indentation.isVisible());
+		Assert.assertEquals(delegate.getLineBreak(), indentation.getLineBreak());
+
+	}
+
+	@Test
+	public void getStatistics_initial() {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT);
+
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(0, statistics.getCalls());
+		Assert.assertEquals(0, statistics.getCharacters());
+		Assert.assertEquals(0, statistics.getSampledCalls());
+		Assert.assertEquals(0, statistics.getAverageSampledNanos(), 0);
+
+	}
+
+	@Test
+	public void getStatistics_countsCalls() throws IOException {
+
+		MeteredIndentation indentation = new MeteredIndentation(new WhitespaceIndentation(Whitespace.SPACE, 2,
+				LineBreak.UNIX));
+
+		indentation.get(1);
+		indentation.get(1, true);
+		indentation.getCharSequence(2);
+		indentation.appendTo(new StringBuilder(), 3);
+		indentation.writeTo(new ByteArrayOutputStream(), 1);
+		indentation.writeTo(ByteBuffer.allocate(16), 1);
+		indentation.writeTo(new byte[16], 0, 1);
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(2, statistics.getGetCalls());
+		Assert.assertEquals(1, statistics.getGetCharSequenceCalls());
+		Assert.assertEquals(1, statistics.getAppendToCalls());
+		Assert.assertEquals(3, statistics.getWriteToCalls());
+		Assert.assertEquals(7, statistics.getCalls());
+
+	}
+
+	@Test
+	public void getStatistics_countsCharacters() throws IOException {
+
+		MeteredIndentation indentation = new MeteredIndentation(new WhitespaceIndentation(Whitespace.SPACE, 2,
+				LineBreak.WINDOWS));
+
+		indentation.get(1);
+		indentation.appendTo(new StringBuilder(), 2, true);
+		indentation.writeTo(new byte[16], 0, 3);
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(2 + 6, statistics.getCharacters());
+		Assert.assertEquals(6, statistics.getBytes());
+
+	}
+
+	@Test
+	public void getStatistics_countsBytes() throws IOException {
+
+		MeteredIndentation indentation = new MeteredIndentation(new AbstractIndentation("\u00e4", LineBreak.WINDOWS) {
+		});
+
+		indentation.appendTo(new StringBuilder(), 2, true);
+		indentation.writeTo(new ByteArrayOutputStream(), 2, true);
+		indentation.writeTo(ByteBuffer.allocate(16), 3);
+		indentation.writeTo(new byte[16], 0, 1, true);
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(4, statistics.getCharacters());
+		Assert.assertEquals(6 + 6 + 4, statistics.getBytes());
+
+	}
+
+	@Test
+	public void getStatistics_invisibleCharacters() throws IOException {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.INVISIBLE);
+
+		indentation.appendTo(new StringBuilder(), 5, true);
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(1, statistics.getCalls());
+		Assert.assertEquals(0, statistics.getCharacters());
+
+	}
+
+	@Test
+	public void getStatistics_negativeLevel() throws IOException {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.INVISIBLE);
+
+		for (int level : new int[] { -1, -3, -20 }) {
+			try {
+				indentation.get(level);
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+			}
+			try {
+				indentation.writeTo(new byte[16], 0, level);
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+			}
+		}
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(0, statistics.getCalls());
+		Assert.assertEquals(0, statistics.getCharacters());
+		Assert.assertEquals(0, statistics.getBytes());
+		Assert.assertEquals(0, statistics.getSampledCalls());
+		Assert.assertEquals(0, statistics.getMaximumSampledNanos());
+		for (int level = 0; level <= statistics.getLevels(); level++) {
+			Assert.assertEquals(0, statistics.getLevelCount(level));
+		}
+
+	}
+
+	@Test
+	public void getStatistics_levelHistogram() {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT, 2, 0);
+
+		indentation.get(0);
+		indentation.get(1);
+		indentation.get(1);
+		indentation.get(2);
+		indentation.get(7);
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(2, statistics.getLevels());
+		Assert.assertEquals(1, statistics.getLevelCount(0));
+		Assert.assertEquals(2, statistics.getLevelCount(1));
+		Assert.assertEquals(2, statistics.getLevelCount(2));
+		Assert.assertEquals(2, statistics.getLevelCount(42));
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getLevelCount_negativeLevel() {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT);
+
+		indentation.getStatistics().getLevelCount(-1);
+
+	}
+
+	@Test
+	public void getStatistics_sampledLatencies() {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT, 0, 4);
+
+		for (int i = 0; i < 16; i++) {
+			indentation.get(i);
+		}
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(4, statistics.getSampledCalls());
+		Assert.assertTrue(statistics.getMaximumSampledNanos() >= statistics.getAverageSampledNanos());
+
+	}
+
+	@Test
+	public void getStatistics_snapshot() {
+
+		MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT);
+
+		IndentationStatistics statistics = indentation.getStatistics();
+		indentation.get(1);
+
+		Assert.assertEquals(0, statistics.getCalls());
+		Assert.assertEquals(1, indentation.getStatistics().getCalls());
+
+	}
+
+	@Test
+	public void getStatistics_concurrentCalls() throws InterruptedException {
+
+		final MeteredIndentation indentation = new MeteredIndentation(Indentation.DEFAULT, 4, 0);
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			final int level = i;
+			Thread thread = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						indentation.get(level);
+					}
+				}
+
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		IndentationStatistics statistics = indentation.getStatistics();
+
+		Assert.assertEquals(40000, statistics.getGetCalls());
+		Assert.assertEquals(10000, statistics.getLevelCount(3));
+		Assert.assertEquals(60000, statistics.getCharacters());
+
+	}
+
+}
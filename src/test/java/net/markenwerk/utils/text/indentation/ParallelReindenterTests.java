@@ -0,0 +1,75 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class ParallelReindenterTests {
+
+	private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+	private final Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.UNIX,
+			4, 2);
+
+	@After
+	public void shutdown() {
+		executorService.shutdownNow();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullReindenter() {
+
+		new ParallelReindenter(null, executorService);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullExecutorService() {
+
+		new ParallelReindenter(reindenter, null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveThreshold() {
+
+		new ParallelReindenter(reindenter, executorService, 0);
+
+	}
+
+	@Test
+	public void reindent_belowThreshold() throws IOException {
+
+		ParallelReindenter parallelReindenter = new ParallelReindenter(reindenter, executorService);
+
+		StringBuilder output = new StringBuilder();
+		parallelReindenter.reindent("a\r\n  b\r\n    c", output);
+
+		Assert.assertEquals("a\n\tb\n\t\tc", output.toString());
+
+	}
+
+	@Test
+	public void reindent_aboveThreshold() throws IOException {
+
+		ParallelReindenter parallelReindenter = new ParallelReindenter(reindenter, executorService, 100);
+
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			input.append("line ").append(i).append("\r\n  {\r\n    nested\r\n  }\r\n");
+		}
+		StringBuilder expected = new StringBuilder();
+		reindenter.reindent(input, expected);
+		StringBuilder output = new StringBuilder();
+		parallelReindenter.reindent(input, output);
+
+		Assert.assertEquals(expected.toString(), output.toString());
+
+	}
+
+}
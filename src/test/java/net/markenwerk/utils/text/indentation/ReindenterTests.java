@@ -0,0 +1,241 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("javadoc")
+public class ReindenterTests {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new Reindenter(null, LineBreak.UNIX);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullLineBreak() {
+
+		new Reindenter(Indentation.DEFAULT, null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveTabWidth() {
+
+		new Reindenter(Indentation.DEFAULT, LineBreak.UNIX, 0, 4);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveLevelWidth() {
+
+		new Reindenter(Indentation.DEFAULT, LineBreak.UNIX, 4, 0);
+
+	}
+
+	@Test
+	public void reindent_spacesToTabs() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.UNIX, 4, 2);
+
+		String result = reindent(reindenter, "a\n  b\n    c\n  d\ne");
+
+		Assert.assertEquals("a\n\tb\n\t\tc\n\td\ne", result);
+
+	}
+
+	@Test
+	public void reindent_tabsToSpaces() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.SPACE, 2), LineBreak.UNIX, 4, 4);
+
+		String result = reindent(reindenter, "a\n\tb\n\t\tc\n  \td\n");
+
+		Assert.assertEquals("a\n  b\n    c\n  d\n", result);
+
+	}
+
+	@Test
+	public void reindent_remainingColumns() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.UNIX, 4, 4);
+
+		String result = reindent(reindenter, "      a");
+
+		Assert.assertEquals("\t  a", result);
+
+	}
+
+	@Test
+	public void reindent_lineBreaks() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.WINDOWS);
+
+		String result = reindent(reindenter, "a\nb\r\nc\rd\n\r\n\re");
+
+		Assert.assertEquals("a\r\nb\r\nc\r\nd\r\n\r\n\r\ne", result);
+
+	}
+
+	@Test
+	public void reindent_whitespaceOnlyLines() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.UNIX);
+
+		String result = reindent(reindenter, "a\n    \n\t\nb  \n  ");
+
+		Assert.assertEquals("a\n\n\nb  \n", result);
+
+	}
+
+	@Test
+	public void reindent_chunkBoundaries() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.SPACE, 1), LineBreak.UNIX, 4, 4);
+
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			input.append("        line\r\n");
+			expected.append("  line\n");
+		}
+		String result = reindent(reindenter, input.toString());
+
+		Assert.assertEquals(expected.toString(), result);
+
+	}
+
+	@Test
+	public void reindent_streams() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.UNIX);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		reindenter.reindent(new ByteArrayInputStream("ä\n    ö".getBytes(UTF_8)), outputStream, UTF_8);
+
+		Assert.assertEquals("ä\n\tö", new String(outputStream.toByteArray(), UTF_8));
+
+	}
+
+	@Test
+	public void reindent_lineBreaksOnly() throws IOException {
+
+		Reindenter reindenter = new Reindenter(LineBreak.UNIX);
+
+		String result = reindent(reindenter, "a\r\n  \tb  \r\n\r\n    c");
+
+		Assert.assertEquals("a\n  \tb  \n\n    c", result);
+
+	}
+
+	@Test
+	public void reindent_files() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.WINDOWS);
+
+		File inputFile = temporaryFolder.newFile();
+		File outputFile = temporaryFolder.newFile();
+		write(inputFile, "ä\n    ö\n  \n        ü");
+		ReindentationReport report = reindenter.reindent(inputFile, outputFile);
+
+		Assert.assertEquals("ä\r\n\tö\r\n\r\n\t\tü", read(outputFile));
+		Assert.assertEquals(inputFile.length(), report.getBytesRead());
+		Assert.assertEquals(outputFile.length(), report.getBytesWritten());
+
+	}
+
+	@Test
+	public void reindent_emptyFile() throws IOException {
+
+		Reindenter reindenter = new Reindenter(new WhitespaceIndentation(Whitespace.TAB, 1), LineBreak.WINDOWS);
+
+		File inputFile = temporaryFolder.newFile();
+		File outputFile = temporaryFolder.newFile();
+		write(outputFile, "foo");
+		reindenter.reindent(inputFile, outputFile);
+
+		Assert.assertEquals(0, outputFile.length());
+
+	}
+
+	@Test
+	public void reindent_failedFile() throws IOException {
+
+		Indentation indentation = new AbstractIndentation("\t", LineBreak.UNIX) {
+
+			@Override
+			public void writeTo(ByteBuffer byteBuffer, int level, boolean includeLineBreak) {
+				if (2 == level) {
+					throw new IllegalStateException();
+				}
+				super.writeTo(byteBuffer, level, includeLineBreak);
+			}
+
+		};
+		Reindenter reindenter = new Reindenter(indentation, LineBreak.UNIX);
+
+		File inputFile = temporaryFolder.newFile();
+		File outputFile = temporaryFolder.newFile();
+		write(inputFile, "a\n    b\n        c");
+		try {
+			reindenter.reindent(inputFile, outputFile);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+		}
+
+		Assert.assertEquals("a\n\tb\n", read(outputFile));
+
+	}
+
+	private static void write(File file, String content) throws IOException {
+		OutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(content.getBytes(UTF_8));
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private static String read(File file) throws IOException {
+		InputStream inputStream = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int length;
+			while (-1 != (length = inputStream.read(buffer))) {
+				outputStream.write(buffer, 0, length);
+			}
+			return new String(outputStream.toByteArray(), UTF_8);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	private static String reindent(Reindenter reindenter, String input) throws IOException {
+		StringWriter writer = new StringWriter();
+		reindenter.reindent(new StringReader(input), writer);
+		return writer.toString();
+	}
+
+}
@@ -0,0 +1,26 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+@SuppressWarnings("javadoc")
+final class SingleCharacterReader extends Reader {
+
+	private final Reader reader;
+
+	public SingleCharacterReader(String string) {
+		reader = new StringReader(string);
+	}
+
+	@Override
+	public int read(char[] buffer, int offset, int length) throws IOException {
+		return reader.read(buffer, offset, Math.min(1, length));
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
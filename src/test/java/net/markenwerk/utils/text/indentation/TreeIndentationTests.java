@@ -0,0 +1,107 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+
+import net.markenwerk.utils.text.indentation.TreeIndentation.Node;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TreeIndentationTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullLineBreak() {
+
+		new TreeIndentation(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullGuide() {
+
+		new TreeIndentation("+- ", "\\- ", null, "   ", LineBreak.UNIX);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullBranch() {
+
+		new TreeIndentation(null, "\\- ", "|  ", "   ", LineBreak.UNIX);
+
+	}
+
+	@Test
+	public void getRoot_emptyPrefix() {
+
+		Node root = new TreeIndentation(LineBreak.UNIX).getRoot();
+
+		Assert.assertEquals("", root.get());
+		Assert.assertEquals("\n", root.get(true));
+		Assert.assertEquals(0, root.getLevel());
+		Assert.assertNull(root.getParent());
+
+	}
+
+	@Test
+	public void getChild_prefixes() {
+
+		Node root = new TreeIndentation(LineBreak.UNIX).getRoot();
+
+		Assert.assertEquals("├── ", root.getChild(false).get());
+		Assert.assertEquals("└── ", root.getChild(true).get());
+		Assert.assertEquals("│   └── ", root.getChild(false).getChild(true).get());
+		Assert.assertEquals("    ├── ", root.getChild(true).getChild(false).get());
+		Assert.assertEquals("│       ", root.getChild(false).getChild(true).getContinuation());
+		Assert.assertEquals("\n│   ├── ", root.getChild(false).getChild(false).get(true));
+		Assert.assertEquals(2, root.getChild(false).getChild(true).getLevel());
+
+	}
+
+	@Test
+	public void getChild_cached() {
+
+		Node root = new TreeIndentation(LineBreak.UNIX).getRoot();
+
+		Node child = root.getChild(false).getChild(true);
+
+		Assert.assertSame(child, root.getChild(false).getChild(true));
+		Assert.assertSame(child.get(), root.getChild(false).getChild(true).get());
+		Assert.assertSame(root, child.getParent().getParent());
+		Assert.assertTrue(child.isLast());
+		Assert.assertFalse(child.getParent().isLast());
+
+	}
+
+	@Test
+	public void appendTo_tree() throws IOException {
+
+		Node root = new TreeIndentation("+- ", "\\- ", "|  ", "   ", LineBreak.UNIX).getRoot();
+		StringBuilder builder = new StringBuilder();
+
+		builder.append("root");
+		root.getChild(false).appendTo(builder, true);
+		builder.append("a");
+		root.getChild(false).getChild(true).appendTo(builder, true);
+		builder.append("b");
+		root.getChild(true).appendTo(builder, true);
+		builder.append("c");
+		root.getChild(true).getChild(true).appendTo(builder, true);
+		builder.append("d");
+
+		Assert.assertEquals("root\n+- a\n|  \\- b\n\\- c\n   \\- d", builder.toString());
+
+	}
+
+	@Test
+	public void get_level() {
+
+		Indentation indentation = new TreeIndentation(LineBreak.UNIX);
+
+		Assert.assertEquals("│   │   ", indentation.get(2));
+		Assert.assertEquals("\n│   ", indentation.get(1, true));
+		Assert.assertTrue(indentation.isVisible());
+
+	}
+
+}
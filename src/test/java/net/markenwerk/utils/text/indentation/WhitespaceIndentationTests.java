@@ -1,6 +1,10 @@
 package net.markenwerk.utils.text.indentation;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -494,4 +498,360 @@ public class WhitespaceIndentationTests {
 
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void create_negativeMaximumCachedLevel() {
+
+		new WhitespaceIndentation(Whitespace.SPACE, 0, LineBreak.UNIX, -1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void get_negativeLevel() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 1);
+
+		indentation.get(-1);
+
+	}
+
+	@Test
+	public void get_cached() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2);
+
+		String firstIndentationString = indentation.get(2);
+		String secondIndentationString = indentation.get(2);
+
+		Assert.assertSame(firstIndentationString, secondIndentationString);
+
+	}
+
+	@Test
+	public void get_lineBreakCached() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+		String firstIndentationString = indentation.get(2, true);
+		String secondIndentationString = indentation.get(2, true);
+
+		Assert.assertSame(firstIndentationString, secondIndentationString);
+
+	}
+
+	@Test
+	public void get_beyondMaximumCachedLevel() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX, 1);
+
+		String indentationString = indentation.get(3, true);
+
+		Assert.assertEquals("\n\t\t\t", indentationString);
+
+	}
+
+	@Test
+	public void get_maximumCachedLevelZero() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 1, LineBreak.UNIX, 0);
+
+		Assert.assertEquals("", indentation.get(0));
+		Assert.assertEquals("\n", indentation.get(0, true));
+		Assert.assertEquals("  ", indentation.get(2));
+
+	}
+
+	@Test
+	public void appendTo_singleAppend() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+
+		CountingAppendable appendable = new CountingAppendable();
+		indentation.appendTo(appendable, 3, true);
+
+		Assert.assertEquals(1, appendable.count);
+		Assert.assertEquals("\n\t\t\t", appendable.builder.toString());
+
+	}
+
+	@Test
+	public void appendTo_beyondMaximumCachedLevel_singleAppend() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX, 1);
+
+		CountingAppendable appendable = new CountingAppendable();
+		indentation.appendTo(appendable, 3);
+
+		Assert.assertEquals(1, appendable.count);
+		Assert.assertEquals("\t\t\t", appendable.builder.toString());
+
+	}
+
+	@Test
+	public void appendTo_writer_lineBreak() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.WINDOWS);
+
+		StringWriter writer = new StringWriter();
+		indentation.appendTo(writer, 2, true);
+		String indentationString = writer.toString();
+
+		Assert.assertEquals("\r\n    ", indentationString);
+
+	}
+
+	@Test
+	public void appendTo_writer_beyondMaximumCachedLevel() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX, 2);
+
+		StringWriter writer = new StringWriter();
+		indentation.appendTo(writer, 5, true);
+		indentation.appendTo(writer, 3);
+		String indentationString = writer.toString();
+
+		Assert.assertEquals("\n" + indentation.get(5) + indentation.get(3), indentationString);
+		Assert.assertEquals(17, indentationString.length());
+
+	}
+
+	@Test
+	public void appendTo_writer_maximumCachedLevelZero() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX, 0);
+
+		StringWriter writer = new StringWriter();
+		indentation.appendTo(writer, 3, true);
+		String indentationString = writer.toString();
+
+		Assert.assertEquals("\n\t\t\t", indentationString);
+
+	}
+
+	@Test
+	public void writeTo_outputStream() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.WINDOWS);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		indentation.writeTo(outputStream, 2, true);
+		indentation.writeTo(outputStream, 1);
+		String indentationString = new String(outputStream.toByteArray(), "UTF-8");
+
+		Assert.assertEquals("\r\n\t\t\t", indentationString);
+
+	}
+
+	@Test
+	public void writeTo_outputStream_beyondMaximumCachedLevel() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 3, LineBreak.UNIX, 1);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		indentation.writeTo(outputStream, 4, true);
+		String indentationString = new String(outputStream.toByteArray(), "UTF-8");
+
+		Assert.assertEquals(indentation.get(4, true), indentationString);
+
+	}
+
+	@Test
+	public void writeTo_byteBuffer() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(8);
+		indentation.writeTo(byteBuffer, 2, true);
+
+		Assert.assertEquals(5, byteBuffer.position());
+		Assert.assertEquals("\n    ", new String(byteBuffer.array(), 0, 5, "UTF-8"));
+
+	}
+
+	@Test
+	public void writeTo_byteBuffer_overflow() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(4);
+		try {
+			indentation.writeTo(byteBuffer, 2, true);
+			Assert.fail();
+		} catch (BufferOverflowException e) {
+			Assert.assertEquals(0, byteBuffer.position());
+		}
+
+	}
+
+	@Test
+	public void writeTo_byteArray() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+
+		byte[] bytes = new byte[6];
+		int length = indentation.writeTo(bytes, 2, 3, true);
+
+		Assert.assertEquals(4, length);
+		Assert.assertEquals("\n\t\t\t", new String(bytes, 2, length, "UTF-8"));
+
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void writeTo_byteArray_overflow() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+
+		indentation.writeTo(new byte[6], 3, 3, true);
+
+	}
+
+	@Test
+	public void getCharSequence_cached() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+		CharSequence indentationSequence = indentation.getCharSequence(2, true);
+
+		Assert.assertSame(indentation.get(2, true), indentationSequence);
+
+	}
+
+	@Test
+	public void getCharSequence_beyondMaximumCachedLevel() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 2, LineBreak.WINDOWS, 1);
+
+		CharSequence indentationSequence = indentation.getCharSequence(3, true);
+
+		Assert.assertEquals(8, indentationSequence.length());
+		Assert.assertEquals('\r', indentationSequence.charAt(0));
+		Assert.assertEquals('\t', indentationSequence.charAt(7));
+		Assert.assertEquals("\r\n\t\t\t\t\t\t", indentationSequence.toString());
+		Assert.assertEquals("\n\t\t\t", indentationSequence.subSequence(1, 5).toString());
+
+	}
+
+	@Test
+	public void getCharSequence_beyondMaximumCachedLevel_append() {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, 1, LineBreak.UNIX, 0);
+
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(indentation.getCharSequence(5), 1, 4);
+
+		Assert.assertEquals("   ", stringBuilder.toString());
+
+	}
+
+	@Test
+	public void of_canonical() {
+
+		Indentation indentation = WhitespaceIndentation.of(Whitespace.SPACE, 4, LineBreak.UNIX);
+
+		Assert.assertSame(indentation, WhitespaceIndentation.of(Whitespace.SPACE, 4, LineBreak.UNIX));
+		Assert.assertEquals("\n        ", indentation.get(2, true));
+
+	}
+
+	@Test
+	public void of_differentArguments() {
+
+		Indentation indentation = WhitespaceIndentation.of(Whitespace.SPACE, 4, LineBreak.UNIX);
+
+		Assert.assertNotSame(indentation, WhitespaceIndentation.of(Whitespace.TAB, 4, LineBreak.UNIX));
+		Assert.assertNotSame(indentation, WhitespaceIndentation.of(Whitespace.SPACE, 2, LineBreak.UNIX));
+		Assert.assertNotSame(indentation, WhitespaceIndentation.of(Whitespace.SPACE, 4, LineBreak.WINDOWS));
+
+	}
+
+	@Test
+	public void of_longLength() {
+
+		Indentation indentation = WhitespaceIndentation.of(Whitespace.TAB, 20, LineBreak.NONE);
+
+		Assert.assertEquals(20, indentation.get(1).length());
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void of_nullWhitespace() {
+
+		WhitespaceIndentation.of(null, 1, LineBreak.UNIX);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void of_negativeLength() {
+
+		WhitespaceIndentation.of(Whitespace.SPACE, -1, LineBreak.UNIX);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void of_nullLineBreak() {
+
+		WhitespaceIndentation.of(Whitespace.SPACE, 1, null);
+
+	}
+
+	@Test
+	public void appendTo_writer_sharedBuffer() throws IllegalArgumentException, IOException {
+
+		for (LineBreak lineBreak : LineBreak.values()) {
+			for (int length = 0; length < 4; length++) {
+				Indentation indentation = new WhitespaceIndentation(Whitespace.SPACE, length, lineBreak, 2);
+
+				StringWriter writer = new StringWriter();
+				indentation.appendTo(writer, 3, true);
+				indentation.appendTo(writer, 1);
+
+				Assert.assertEquals(indentation.get(3, true) + indentation.get(1), writer.toString());
+			}
+		}
+
+	}
+
+	@Test
+	public void appendTo_writer_beyondSharedBuffer() throws IllegalArgumentException, IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 3, LineBreak.WINDOWS);
+
+		StringWriter writer = new StringWriter();
+		indentation.appendTo(writer, 2000, true);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		indentation.writeTo(outputStream, 2000, true);
+
+		Assert.assertEquals(indentation.get(2000, true), writer.toString());
+		Assert.assertEquals(indentation.get(2000, true), new String(outputStream.toByteArray(), "UTF-8"));
+
+	}
+
+	private static final class CountingAppendable implements Appendable {
+
+		private final StringBuilder builder = new StringBuilder();
+
+		private int count;
+
+		@Override
+		public Appendable append(CharSequence sequence) {
+			count++;
+			builder.append(sequence);
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence sequence, int start, int end) {
+			count++;
+			builder.append(sequence, start, end);
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			count++;
+			builder.append(c);
+			return this;
+		}
+
+	}
+
 }
@@ -0,0 +1,137 @@
+package net.markenwerk.utils.text.indentation;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class WordWrapperTests {
+
+	private static final Indentation INDENTATION = new WhitespaceIndentation(Whitespace.SPACE, 2, LineBreak.UNIX);
+
+	private static final String TEXT = "The quick brown fox jumps over the lazy dog";
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nullIndentation() {
+
+		new WordWrapper(null);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_nonPositiveTabWidth() {
+
+		new WordWrapper(INDENTATION, 0);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrap_nonPositiveWidth() throws IOException {
+
+		new WordWrapper(INDENTATION).wrap(TEXT, new StringBuilder(), 0, 0, 1);
+
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrap_negativeLevel() throws IOException {
+
+		new WordWrapper(INDENTATION).wrap(TEXT, new StringBuilder(), 10, 0, -1);
+
+	}
+
+	@Test
+	public void wrap_hangingIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(INDENTATION).wrap(TEXT, builder, 16, 1, 2);
+
+		Assert.assertEquals("  The quick\n    brown fox\n    jumps over\n    the lazy dog", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_tabIndentation() throws IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(indentation).wrap("ab cd efgh", builder, 12, 2, 2);
+
+		Assert.assertEquals("\t\tab\n\t\tcd\n\t\tefgh", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_customTabWidth() throws IOException {
+
+		Indentation indentation = new WhitespaceIndentation(Whitespace.TAB, 1, LineBreak.UNIX);
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(indentation, 2).wrap("ab cd efgh", builder, 12, 2, 2);
+
+		Assert.assertEquals("\t\tab cd\n\t\tefgh", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_collapsesWhitespace() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(INDENTATION).wrap("  a \t b\n\nc  ", builder, 80, 0, 1);
+
+		Assert.assertEquals("a b c", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_longWord() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(INDENTATION).wrap("a abcdefghij b", builder, 6, 0, 1);
+
+		Assert.assertEquals("a\n  abcdefghij\n  b", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_empty() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(INDENTATION).wrap(" \n ", builder, 10, 1, 1);
+
+		Assert.assertEquals("", builder.toString());
+
+	}
+
+	@Test
+	public void wrap_writer() throws IOException {
+
+		StringWriter writer = new StringWriter();
+		StringWriter builderWriter = new StringWriter();
+
+		new WordWrapper(INDENTATION).wrap(TEXT, writer, 16, 1, 2);
+		new WordWrapper(INDENTATION).wrap(new StringBuilder(TEXT), builderWriter, 16, 1, 2);
+
+		Assert.assertEquals("  The quick\n    brown fox\n    jumps over\n    the lazy dog", writer.toString());
+		Assert.assertEquals(writer.toString(), builderWriter.toString());
+
+	}
+
+	@Test
+	public void wrap_invisibleIndentation() throws IOException {
+
+		StringBuilder builder = new StringBuilder();
+
+		new WordWrapper(Indentation.INVISIBLE).wrap(TEXT, builder, 10, 1, 2);
+
+		Assert.assertEquals(TEXT, builder.toString());
+
+	}
+
+}